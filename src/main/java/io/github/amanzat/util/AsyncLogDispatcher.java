@@ -0,0 +1,346 @@
+package io.github.amanzat.util;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dispatches log events asynchronously, so the appenders don't run on the caller threads.
+ * <p>
+ * The events are enqueued in a ring buffer of preallocated slots: logging with up to three arguments only claims a
+ * slot with a compare-and-set and copies the references, without allocation or locks. A single dispatcher thread
+ * drains all the published events in a batch to the target loggers with {@link Slf4jUtils#log(Logger, Level, String, Object)},
+ * waiting with the configured {@link WaitStrategy} when the ring buffer is empty. The level is checked on the caller
+ * thread, so the disabled events are never enqueued.
+ * <p>
+ * When the ring buffer is full, the {@link OverflowPolicy} decides if the caller waits or the event is dropped.
+ * The dropped events are counted, see {@link #stats()}. The arguments are formatted on the dispatcher thread, so
+ * they must be immutable or not modified after being logged.
+ * <p>
+ * The appenders run on the dispatcher thread: the thread name in the logs is the dispatcher's, and the caller's
+ * {@link org.slf4j.MDC MDC} is not available, so the contextual values must be passed as arguments.
+ * If the dispatcher thread stops unexpectedly, the next events are logged synchronously on the caller thread.
+ *
+ * @see Slf4jUtils
+ */
+@Slf4j
+public final class AsyncLogDispatcher implements AutoCloseable {
+
+    /**
+     * The policy applied when the ring buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The caller waits for a free slot, so no event is lost but the caller may be slowed down by the appenders.
+         */
+        BLOCK,
+        /**
+         * The event is dropped, so the caller is never slowed down.
+         */
+        DROP,
+        /**
+         * The events with a level lower than the {@code dropBelowLevel} are dropped, the others wait for a free slot.
+         */
+        DROP_BELOW_LEVEL
+    }
+
+    private static final WaitStrategy DEFAULT_WAIT_STRATEGY = WaitStrategy.backoff(100, 10, Duration.ofNanos(10_000), Duration.ofMillis(1));
+
+    /**
+     * The number of arguments of the events logged with an arguments array.
+     */
+    private static final int ARRAY_ARITY = -1;
+
+    private final Event[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+    private final OverflowPolicy overflowPolicy;
+    private final int dropBelowLevel;
+    private final WaitStrategy waitStrategy;
+    private final Thread dispatcher;
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean closed;
+    private volatile boolean stopped;
+
+    /**
+     * Creates and starts an asynchronous log dispatcher.
+     *
+     * @param capacity       The capacity of the ring buffer, rounded up to a power of two (at least 2)
+     * @param overflowPolicy The policy applied when the ring buffer is full, {@link OverflowPolicy#BLOCK} if {@code null}
+     * @param dropBelowLevel The level below which the events are dropped with {@link OverflowPolicy#DROP_BELOW_LEVEL},
+     *                       {@link Level#WARN} if {@code null}
+     * @param waitStrategy   The strategy of the dispatcher and of the waiting callers, a backoff up to 1ms if {@code null}
+     * @param threadFactory  The factory of the dispatcher thread, a daemon platform thread if {@code null}
+     */
+    @Builder
+    private AsyncLogDispatcher(int capacity, OverflowPolicy overflowPolicy, Level dropBelowLevel,
+                               WaitStrategy waitStrategy, ThreadFactory threadFactory) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("The capacity must be positive and at most 2^30.");
+        }
+        // a slot sequence must distinguish a published event from a free slot of the next turn, so at least 2 slots
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Event[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Event();
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.BLOCK : overflowPolicy;
+        this.dropBelowLevel = (dropBelowLevel == null ? Level.WARN : dropBelowLevel).toInt();
+        this.waitStrategy = waitStrategy == null ? DEFAULT_WAIT_STRATEGY : waitStrategy;
+        this.dispatcher = threadFactory == null ? new Thread(this::dispatch, "async-log-dispatcher") : threadFactory.newThread(this::dispatch);
+        if (threadFactory == null) {
+            this.dispatcher.setDaemon(true);
+        }
+        this.dispatcher.start();
+    }
+
+    /**
+     * Returns the capacity of the ring buffer.
+     *
+     * @return The capacity of the ring buffer.
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Logs the message asynchronously if the level is enabled.
+     *
+     * @param logger  The logger
+     * @param level   The level
+     * @param message The message
+     */
+    public void log(Logger logger, Level level, String message) {
+        if (logger.isEnabledForLevel(level)) {
+            enqueue(logger, level, message, 0, null, null, null, null);
+        }
+    }
+
+    /**
+     * Logs the message with one argument asynchronously if the level is enabled.
+     *
+     * @param logger   The logger
+     * @param level    The level
+     * @param format   The message format
+     * @param argument The argument
+     */
+    public void log(Logger logger, Level level, String format, Object argument) {
+        if (logger.isEnabledForLevel(level)) {
+            enqueue(logger, level, format, 1, argument, null, null, null);
+        }
+    }
+
+    /**
+     * Logs the message with two arguments asynchronously if the level is enabled.
+     *
+     * @param logger    The logger
+     * @param level     The level
+     * @param format    The message format
+     * @param argument1 The first argument
+     * @param argument2 The second argument
+     */
+    public void log(Logger logger, Level level, String format, Object argument1, Object argument2) {
+        if (logger.isEnabledForLevel(level)) {
+            enqueue(logger, level, format, 2, argument1, argument2, null, null);
+        }
+    }
+
+    /**
+     * Logs the message with three arguments asynchronously if the level is enabled.
+     *
+     * @param logger    The logger
+     * @param level     The level
+     * @param format    The message format
+     * @param argument1 The first argument
+     * @param argument2 The second argument
+     * @param argument3 The third argument
+     */
+    public void log(Logger logger, Level level, String format, Object argument1, Object argument2, Object argument3) {
+        if (logger.isEnabledForLevel(level)) {
+            enqueue(logger, level, format, 3, argument1, argument2, argument3, null);
+        }
+    }
+
+    /**
+     * Logs the message with the arguments asynchronously if the level is enabled.
+     *
+     * @param logger    The logger
+     * @param level     The level
+     * @param format    The message format
+     * @param arguments The arguments
+     */
+    public void log(Logger logger, Level level, String format, Object... arguments) {
+        if (logger.isEnabledForLevel(level)) {
+            enqueue(logger, level, format, ARRAY_ARITY, null, null, null, arguments);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the dispatcher.
+     *
+     * @return The statistics of the dispatcher.
+     */
+    public Stats stats() {
+        return new Stats(enqueued.sum(), dropped.sum(), failures.sum());
+    }
+
+    /**
+     * Stops the dispatcher after it dispatched the enqueued events. The next events are logged synchronously.
+     * <p>
+     * The events logged concurrently with this call may be lost.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted while closing the async log dispatcher.", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(Logger target, Level level, String format, int arity,
+                         Object argument1, Object argument2, Object argument3, Object[] arguments) {
+        if (closed || stopped) {
+            dispatch(target, level, format, arity, argument1, argument2, argument3, arguments);
+            return;
+        }
+        boolean block = overflowPolicy == OverflowPolicy.BLOCK
+                || overflowPolicy == OverflowPolicy.DROP_BELOW_LEVEL && level.toInt() >= dropBelowLevel;
+        for (int attempt = 0; ; ) {
+            long sequence = tail.get();
+            int index = (int) sequence & mask;
+            long available = sequences.get(index) - sequence;
+            if (available == 0) {
+                if (tail.compareAndSet(sequence, sequence + 1)) {
+                    slots[index].set(target, level, format, arity, argument1, argument2, argument3, arguments);
+                    // publishes the event to the dispatcher
+                    sequences.set(index, sequence + 1);
+                    enqueued.increment();
+                    return;
+                }
+            } else if (available < 0) {
+                // the slot was not dispatched yet, the ring buffer is full
+                if (stopped) {
+                    dispatch(target, level, format, arity, argument1, argument2, argument3, arguments);
+                    return;
+                }
+                if (!block || closed || Thread.currentThread().isInterrupted()) {
+                    dropped.increment();
+                    return;
+                }
+                waitStrategy.idle(attempt);
+                if (attempt < Integer.MAX_VALUE) {
+                    attempt++;
+                }
+            }
+        }
+    }
+
+    private void dispatch() {
+        try {
+            for (int attempt = 0; !closed || head != tail.get(); ) {
+                if (drain() > 0) {
+                    attempt = 0;
+                } else {
+                    waitStrategy.idle(attempt);
+                    if (attempt < Integer.MAX_VALUE) {
+                        attempt++;
+                    }
+                }
+            }
+        } finally {
+            // the callers no longer wait for the dispatcher
+            stopped = true;
+        }
+    }
+
+    /**
+     * Dispatches the published events.
+     *
+     * @return The number of dispatched events.
+     */
+    private int drain() {
+        int count = 0;
+        for (int index = (int) head & mask; sequences.get(index) == head + 1; index = (int) head & mask) {
+            Event event = slots[index];
+            dispatch(event.target, event.level, event.format, event.arity,
+                    event.argument1, event.argument2, event.argument3, event.arguments);
+            event.set(null, null, null, 0, null, null, null, null);
+            // frees the slot for the next turn of the ring buffer
+            sequences.set(index, head + slots.length);
+            head++;
+            count++;
+        }
+        return count;
+    }
+
+    private void dispatch(Logger target, Level level, String format, int arity,
+                          Object argument1, Object argument2, Object argument3, Object[] arguments) {
+        try {
+            switch (arity) {
+                case 0 -> Slf4jUtils.log(target, level, format);
+                case 1 -> Slf4jUtils.log(target, level, format, argument1);
+                case 2 -> Slf4jUtils.log(target, level, format, argument1, argument2);
+                case 3 -> Slf4jUtils.log(target, level, format, argument1, argument2, argument3);
+                default -> Slf4jUtils.log(target, level, format, arguments);
+            }
+        } catch (Throwable e) {
+            // an appender failure, even an error, must not stop the dispatcher thread
+            failures.increment();
+            logger.warn("Error while dispatching a log event of {}.", target.getName(), e);
+        }
+    }
+
+    /**
+     * A preallocated slot of the ring buffer, its fields being published by the slot sequence.
+     */
+    private static final class Event {
+
+        private Logger target;
+        private Level level;
+        private String format;
+        private int arity;
+        private Object argument1;
+        private Object argument2;
+        private Object argument3;
+        private Object[] arguments;
+
+        private void set(Logger target, Level level, String format, int arity,
+                         Object argument1, Object argument2, Object argument3, Object[] arguments) {
+            this.target = target;
+            this.level = level;
+            this.format = format;
+            this.arity = arity;
+            this.argument1 = argument1;
+            this.argument2 = argument2;
+            this.argument3 = argument3;
+            this.arguments = arguments;
+        }
+    }
+
+    /**
+     * The statistics of an asynchronous log dispatcher.
+     *
+     * @param enqueued The number of enqueued events
+     * @param dropped  The number of events dropped because the ring buffer was full
+     * @param failures The number of events which failed to be dispatched
+     */
+    public record Stats(long enqueued, long dropped, long failures) {
+    }
+}
@@ -0,0 +1,212 @@
+package io.github.amanzat.util;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Groups elements added concurrently into batches processed asynchronously on an {@link Executor}.
+ * <p>
+ * The elements are added to a bounded queue, so the producers are blocked (or rejected) when the consumer can't
+ * keep up. A dispatcher thread drains the queue and flushes a batch when it reaches the batch size or when the
+ * linger time has elapsed since its first element was taken. At most {@code maxInFlight} batches are processed
+ * at the same time, so throughput is not gated by a single synchronous consumer.
+ * <p>
+ * The executor can be any executor, for example {@code Executors.newVirtualThreadPerTaskExecutor()} on Java 21+.
+ * Failures of the batch consumer are logged and counted, they don't stop the processor.
+ *
+ * @param <T> The element type.
+ * @see CollectionUtils#chunkify(java.util.Iterator, int)
+ */
+@Slf4j
+public final class BatchProcessor<T> implements AutoCloseable {
+
+    /**
+     * The maximum time the dispatcher waits for elements before checking if the processor is closed.
+     */
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final int batchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<T> queue;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Consumer<? super List<T>> consumer;
+    private final Thread dispatcher;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Creates and starts a batch processor.
+     *
+     * @param batchSize     The maximum batch size
+     * @param linger        The maximum time to wait for a batch to fill up after its first element
+     * @param queueCapacity The capacity of the queue of elements waiting to be batched
+     * @param executor      The executor processing the batches
+     * @param maxInFlight   The maximum number of batches processed at the same time
+     * @param consumer      The batch consumer
+     */
+    @Builder
+    private BatchProcessor(int batchSize, Duration linger, int queueCapacity, Executor executor, int maxInFlight,
+                           Consumer<? super List<T>> consumer) {
+        if (batchSize <= 0 || queueCapacity <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("The batch size, queue capacity and max in-flight batches must be positive.");
+        }
+        this.batchSize = batchSize;
+        this.lingerNanos = Objects.requireNonNull(linger, "linger").toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.consumer = Objects.requireNonNull(consumer, "consumer");
+        this.dispatcher = new Thread(this::dispatch, "batch-processor-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Adds an element, waiting if the queue is full.
+     *
+     * @param element The element
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws IllegalStateException if the processor is closed
+     */
+    public void put(T element) throws InterruptedException {
+        ensureOpen();
+        queue.put(element);
+    }
+
+    /**
+     * Adds an element if the queue is not full.
+     *
+     * @param element The element
+     * @return {@code true} if the element was added, {@code false} if the queue is full.
+     * @throws IllegalStateException if the processor is closed
+     */
+    public boolean offer(T element) {
+        ensureOpen();
+        return queue.offer(element);
+    }
+
+    /**
+     * Adds an element, waiting up to the specified timeout if the queue is full.
+     *
+     * @param element The element
+     * @param timeout The maximum time to wait
+     * @return {@code true} if the element was added, {@code false} if the timeout elapsed.
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws IllegalStateException if the processor is closed
+     */
+    public boolean offer(T element, Duration timeout) throws InterruptedException {
+        ensureOpen();
+        return queue.offer(element, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of batches submitted for processing.
+     *
+     * @return The number of batches submitted for processing.
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Returns the number of batches which failed to be processed.
+     *
+     * @return The number of batches which failed to be processed.
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Stops accepting elements, flushes the queued elements and waits for all the batches to be processed.
+     * <p>
+     * The elements added concurrently with this call may not be processed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            dispatcher.join();
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted while closing the batch processor.", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The batch processor is closed.");
+        }
+    }
+
+    private void dispatch() {
+        List<T> batch = new ArrayList<>(batchSize);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                T first = queue.poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    // take what is already available without waiting
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    T next = remaining > 0 && !closed ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                submit(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        } catch (InterruptedException e) {
+            logger.warn("The batch processor dispatcher was interrupted, {} queued elements are dropped.", queue.size() + batch.size());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(List<T> batch) throws InterruptedException {
+        inFlight.acquire();
+        batches.increment();
+        try {
+            executor.execute(() -> {
+                try {
+                    consumer.accept(batch);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    logger.warn("Error while processing a batch of {} elements.", batch.size(), e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            failures.increment();
+            logger.warn("The batch of {} elements was rejected by the executor.", batch.size(), e);
+        }
+    }
+}
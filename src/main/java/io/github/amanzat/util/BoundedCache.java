@@ -0,0 +1,299 @@
+package io.github.amanzat.util;
+
+import lombok.Builder;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrent cache with a maximum size and an optional expiration time after the entries are written.
+ * <p>
+ * The entries are kept in a {@link ConcurrentHashMap}, so the reads are lock-free. When the cache is full, an entry
+ * is evicted with the CLOCK (second chance) policy, an approximation of LRU: the reads only mark the entries as
+ * referenced, and the eviction skips and unmarks the referenced entries in insertion order. The evictions are done
+ * by the writing threads, one at a time. The expired entries are removed when they are read or found by the eviction.
+ * <p>
+ * The {@code null} keys and values are not supported.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public final class BoundedCache<K, V> {
+
+    private final int maximumSize;
+    private final long expireAfterWriteNanos;
+    private final LongSupplier ticker;
+    private final ConcurrentHashMap<K, Node<K, V>> map;
+    /**
+     * The entries in insertion order, including the replaced and removed ones until they are found by the eviction.
+     */
+    private final Queue<Node<K, V>> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger clockSize = new AtomicInteger();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize      The maximum number of entries
+     * @param expireAfterWrite The time after which an entry expires once written, {@code null} if the entries don't expire
+     * @param ticker           The source of {@link System#nanoTime()} values, {@code null} for the system ticker
+     */
+    @Builder
+    private BoundedCache(int maximumSize, Duration expireAfterWrite, LongSupplier ticker) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive.");
+        }
+        if (expireAfterWrite != null && (expireAfterWrite.isNegative() || expireAfterWrite.isZero())) {
+            throw new IllegalArgumentException("The expiration time must be positive.");
+        }
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteNanos = expireAfterWrite == null ? Long.MAX_VALUE : ThreadUtils.toNanos(expireAfterWrite);
+        this.ticker = ticker == null ? System::nanoTime : ticker;
+        this.map = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 16));
+    }
+
+    /**
+     * Returns the value of the specified key if it's cached.
+     *
+     * @param key The key
+     * @return The cached value or {@code null}.
+     */
+    public V getIfPresent(K key) {
+        Node<K, V> node = map.get(key);
+        if (node != null && !isExpired(node)) {
+            node.referenced = true;
+            hits.increment();
+            return node.value;
+        }
+        if (node != null) {
+            expire(node);
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Returns the value of the specified key, loading and caching it if it's not cached.
+     * <p>
+     * The value of a key is loaded at most once at a time, the other threads requesting the same key wait for it.
+     * The loader must not modify the cache. A {@code null} value is returned but not cached, and the exceptions
+     * thrown by the loader are propagated.
+     *
+     * @param key    The key
+     * @param loader The function computing the value of a key
+     * @return The cached or loaded value.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Node<K, V> node = map.get(key);
+        if (node != null && !isExpired(node)) {
+            node.referenced = true;
+            hits.increment();
+            return node.value;
+        }
+        Objects.requireNonNull(loader, "loader");
+        misses.increment();
+        boolean[] added = new boolean[1];
+        Node<K, V> result = map.compute(key, (k, current) -> {
+            if (current != null && !isExpired(current)) {
+                return current;
+            }
+            if (current != null) {
+                expirations.increment();
+            }
+            V value;
+            try {
+                value = loader.apply(k);
+            } catch (RuntimeException | Error e) {
+                loadFailures.increment();
+                throw e;
+            }
+            added[0] = value != null;
+            return value == null ? null : new Node<>(k, value, ticker.getAsLong());
+        });
+        if (added[0]) {
+            enqueue(result);
+        }
+        return result == null ? null : result.value;
+    }
+
+    /**
+     * Caches the specified value for the specified key, replacing the existing value if any.
+     *
+     * @param key   The key
+     * @param value The value
+     */
+    public void put(K key, V value) {
+        Objects.requireNonNull(value, "value");
+        Node<K, V> node = new Node<>(key, value, ticker.getAsLong());
+        map.put(key, node);
+        enqueue(node);
+    }
+
+    /**
+     * Removes the value of the specified key.
+     *
+     * @param key The key
+     */
+    public void invalidate(K key) {
+        map.remove(key);
+    }
+
+    /**
+     * Removes all the values.
+     */
+    public void invalidateAll() {
+        map.clear();
+    }
+
+    /**
+     * Returns the number of cached entries, including the expired entries which are not yet removed.
+     *
+     * @return The number of cached entries.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Removes the expired entries and the stale eviction data.
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            purge();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the cache.
+     *
+     * @return The statistics of the cache.
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), loadFailures.sum(), evictions.sum(), expirations.sum());
+    }
+
+    private boolean isExpired(Node<K, V> node) {
+        return expireAfterWriteNanos != Long.MAX_VALUE && ticker.getAsLong() - node.writeNanos >= expireAfterWriteNanos;
+    }
+
+    private void expire(Node<K, V> node) {
+        if (map.remove(node.key, node)) {
+            expirations.increment();
+        }
+    }
+
+    private void enqueue(Node<K, V> node) {
+        clock.offer(node);
+        int queued = clockSize.incrementAndGet();
+        if (map.size() > maximumSize || queued > 2 * maximumSize) {
+            evictionLock.lock();
+            try {
+                evict();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Evicts entries until the cache is not over its maximum size, then drops the stale entries from the clock
+     * if they are too many. Must be called while holding the eviction lock.
+     */
+    private void evict() {
+        while (map.size() > maximumSize) {
+            Node<K, V> node = clock.poll();
+            if (node == null) {
+                break;
+            }
+            clockSize.decrementAndGet();
+            if (map.get(node.key) != node) {
+                // replaced or removed
+                continue;
+            }
+            if (isExpired(node)) {
+                expire(node);
+            } else if (node.referenced) {
+                // second chance
+                node.referenced = false;
+                clock.offer(node);
+                clockSize.incrementAndGet();
+            } else if (map.remove(node.key, node)) {
+                evictions.increment();
+            }
+        }
+        if (clockSize.get() > 2 * maximumSize) {
+            purge();
+        }
+    }
+
+    /**
+     * Drops the stale and expired entries from the clock. Must be called while holding the eviction lock.
+     */
+    private void purge() {
+        for (Iterator<Node<K, V>> iterator = clock.iterator(); iterator.hasNext(); ) {
+            Node<K, V> node = iterator.next();
+            boolean stale = map.get(node.key) != node;
+            if (!stale && isExpired(node)) {
+                expire(node);
+                stale = true;
+            }
+            if (stale) {
+                iterator.remove();
+                clockSize.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * The statistics of a cache.
+     *
+     * @param hits         The number of lookups which found a value
+     * @param misses       The number of lookups which didn't find a value
+     * @param loadFailures The number of loads which threw an exception
+     * @param evictions    The number of entries evicted because the cache was full
+     * @param expirations  The number of entries removed because they expired
+     */
+    public record Stats(long hits, long misses, long loadFailures, long evictions, long expirations) {
+
+        /**
+         * Returns the ratio of lookups which found a value.
+         *
+         * @return The hit rate, or 1 if there were no lookups.
+         */
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 1 : (double) hits / requests;
+        }
+    }
+
+    private static final class Node<K, V> {
+
+        private final K key;
+        private final V value;
+        private final long writeNanos;
+        private volatile boolean referenced;
+
+        private Node(K key, V value, long writeNanos) {
+            this.key = key;
+            this.value = value;
+            this.writeNanos = writeNanos;
+        }
+    }
+}
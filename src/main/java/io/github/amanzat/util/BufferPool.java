@@ -0,0 +1,256 @@
+package io.github.amanzat.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of reusable {@link ByteBuffer byte buffers} organized in power of two size classes.
+ * <p>
+ * Two variants are available:
+ * <ul>
+ *     <li>{@link #threadLocal(boolean, int) thread-local} - each thread keeps its own small stack of buffers per size class,
+ *     no synchronization is needed on the acquire/release path</li>
+ *     <li>{@link #shared(boolean, int) shared} - all threads share a bounded queue of buffers per size class</li>
+ * </ul>
+ * Both variants can pool heap or direct buffers. Requests larger than {@link #MAX_POOLED_CAPACITY} are not pooled,
+ * a new buffer with the exact capacity being allocated instead.
+ * <p>
+ * The buffers must be {@link #release(ByteBuffer) released} after use, ideally in a {@code finally} block,
+ * and must not be used after release.
+ */
+public abstract class BufferPool {
+
+    /**
+     * The capacity ({@value}) of the smallest size class.
+     */
+    public static final int MIN_POOLED_CAPACITY = 1024;
+
+    /**
+     * The capacity ({@value}) of the largest size class.
+     */
+    public static final int MAX_POOLED_CAPACITY = 1024 * 1024;
+
+    /**
+     * The number of size classes.
+     */
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_POOLED_CAPACITY)
+            - Integer.numberOfTrailingZeros(MIN_POOLED_CAPACITY) + 1;
+
+    private final boolean direct;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder discards = new LongAdder();
+
+    private BufferPool(boolean direct) {
+        this.direct = direct;
+    }
+
+    /**
+     * Creates a pool which keeps the buffers in thread-local storage.
+     *
+     * @param direct      {@code true} to pool direct buffers, {@code false} to pool heap buffers
+     * @param maxPerClass The maximum number of buffers kept per thread and size class
+     * @return A new thread-local buffer pool.
+     */
+    public static BufferPool threadLocal(boolean direct, int maxPerClass) {
+        return new ThreadLocalBufferPool(direct, requirePositive(maxPerClass));
+    }
+
+    /**
+     * Creates a pool which keeps the buffers in bounded queues shared by all threads.
+     *
+     * @param direct      {@code true} to pool direct buffers, {@code false} to pool heap buffers
+     * @param maxPerClass The maximum number of buffers kept per size class
+     * @return A new shared buffer pool.
+     */
+    public static BufferPool shared(boolean direct, int maxPerClass) {
+        return new SharedBufferPool(direct, requirePositive(maxPerClass));
+    }
+
+    /**
+     * Acquires a cleared buffer with a capacity of at least the requested capacity.
+     * <p>
+     * The capacity of the returned buffer is rounded up to the next size class and its limit is set to the capacity.
+     *
+     * @param capacity The minimum capacity
+     * @return A buffer from the pool or a newly allocated buffer.
+     */
+    public ByteBuffer acquire(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity can't be negative.");
+        }
+        if (capacity > MAX_POOLED_CAPACITY) {
+            // too large to be pooled
+            return allocate(capacity);
+        }
+
+        int sizeClass = sizeClass(capacity);
+        ByteBuffer buffer = poll(sizeClass);
+        if (buffer != null) {
+            hits.increment();
+            return buffer;
+        }
+        misses.increment();
+        return allocate(MIN_POOLED_CAPACITY << sizeClass);
+    }
+
+    /**
+     * Releases the buffer back to the pool.
+     * <p>
+     * Buffers which don't match the pool flavour or a size class, or which don't fit in the pool, are discarded.
+     *
+     * @param buffer The buffer to release, {@code null} is ignored
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        if (buffer.isDirect() != direct || buffer.isReadOnly() || Integer.bitCount(capacity) != 1
+                || capacity < MIN_POOLED_CAPACITY || capacity > MAX_POOLED_CAPACITY) {
+            discards.increment();
+            return;
+        }
+        buffer.clear();
+        if (!offer(sizeClass(capacity), buffer)) {
+            discards.increment();
+        }
+    }
+
+    /**
+     * Returns {@code true} if this pool holds direct buffers, {@code false} if it holds heap buffers.
+     *
+     * @return {@code true} if this pool holds direct buffers, {@code false} if it holds heap buffers.
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Returns a snapshot of the pool statistics.
+     *
+     * @return A snapshot of the pool statistics.
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), allocations.sum(), discards.sum());
+    }
+
+    /**
+     * Returns a pooled buffer of the specified size class or {@code null} if none is available.
+     *
+     * @param sizeClass The size class index
+     * @return A pooled buffer or {@code null}.
+     */
+    abstract ByteBuffer poll(int sizeClass);
+
+    /**
+     * Offers the buffer to the pool.
+     *
+     * @param sizeClass The size class index
+     * @param buffer    The cleared buffer
+     * @return {@code true} if the buffer was pooled, {@code false} if the pool is full.
+     */
+    abstract boolean offer(int sizeClass, ByteBuffer buffer);
+
+    private ByteBuffer allocate(int capacity) {
+        allocations.increment();
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * Returns the index of the smallest size class which can hold the specified capacity.
+     *
+     * @param capacity The capacity, at most {@link #MAX_POOLED_CAPACITY}
+     * @return The size class index.
+     */
+    private static int sizeClass(int capacity) {
+        if (capacity <= MIN_POOLED_CAPACITY) {
+            return 0;
+        }
+        return Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1) - Integer.numberOfTrailingZeros(MIN_POOLED_CAPACITY);
+    }
+
+    private static int requirePositive(int maxPerClass) {
+        if (maxPerClass <= 0) {
+            throw new IllegalArgumentException("The maximum number of buffers per size class must be positive.");
+        }
+        return maxPerClass;
+    }
+
+    /**
+     * The buffer pool statistics.
+     *
+     * @param hits        The number of acquired buffers served from the pool
+     * @param misses      The number of acquired buffers which couldn't be served from the pool
+     * @param allocations The number of allocated buffers, including the ones too large to be pooled
+     * @param discards    The number of released buffers which were not pooled
+     */
+    public record Stats(long hits, long misses, long allocations, long discards) {
+    }
+
+    /**
+     * Buffer pool keeping a stack of buffers per size class for each thread.
+     */
+    private static final class ThreadLocalBufferPool extends BufferPool {
+
+        private final int maxPerClass;
+        private final ThreadLocal<Deque<ByteBuffer>[]> buffers;
+
+        private ThreadLocalBufferPool(boolean direct, int maxPerClass) {
+            super(direct);
+            this.maxPerClass = maxPerClass;
+            this.buffers = ThreadLocal.withInitial(() -> ObjectUtils.uncheckedCast(new Deque<?>[SIZE_CLASSES]));
+        }
+
+        @Override
+        ByteBuffer poll(int sizeClass) {
+            Deque<ByteBuffer> stack = buffers.get()[sizeClass];
+            return stack == null ? null : stack.pollFirst();
+        }
+
+        @Override
+        boolean offer(int sizeClass, ByteBuffer buffer) {
+            Deque<ByteBuffer>[] stacks = buffers.get();
+            Deque<ByteBuffer> stack = stacks[sizeClass];
+            if (stack == null) {
+                stack = new ArrayDeque<>(maxPerClass);
+                stacks[sizeClass] = stack;
+            }
+            if (stack.size() >= maxPerClass) {
+                return false;
+            }
+            stack.offerFirst(buffer);
+            return true;
+        }
+    }
+
+    /**
+     * Buffer pool keeping a bounded queue of buffers per size class shared by all threads.
+     */
+    private static final class SharedBufferPool extends BufferPool {
+
+        private final ArrayBlockingQueue<ByteBuffer>[] buffers;
+
+        private SharedBufferPool(boolean direct, int maxPerClass) {
+            super(direct);
+            this.buffers = ObjectUtils.uncheckedCast(new ArrayBlockingQueue<?>[SIZE_CLASSES]);
+            for (int i = 0; i < SIZE_CLASSES; i++) {
+                buffers[i] = new ArrayBlockingQueue<>(maxPerClass);
+            }
+        }
+
+        @Override
+        ByteBuffer poll(int sizeClass) {
+            return buffers[sizeClass].poll();
+        }
+
+        @Override
+        boolean offer(int sizeClass, ByteBuffer buffer) {
+            return buffers[sizeClass].offer(buffer);
+        }
+    }
+}
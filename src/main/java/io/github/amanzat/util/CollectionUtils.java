@@ -4,6 +4,12 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -25,6 +31,17 @@ public final class CollectionUtils {
         return list == null || list.isEmpty() ? Optional.empty() : Optional.ofNullable(list.get(0));
     }
 
+    /**
+     * Returns an optional containing the first value of the list if any.
+     *
+     * @param list The list
+     * @return An optional containing the first value of the list if any
+     * @see #getFirst(List)
+     */
+    public static OptionalInt getFirstInt(IntArrayList list) {
+        return list == null || list.isEmpty() ? OptionalInt.empty() : OptionalInt.of(list.get(0));
+    }
+
     /**
      * Returns {@code true} if the specified collection is empty, {@code false} otherwise.
      *
@@ -64,4 +81,301 @@ public final class CollectionUtils {
         };
         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(listIterator, Spliterator.ORDERED), false);
     }
+
+    /**
+     * Transforms a list into a stream of lists with a maximum size.
+     * <p>
+     * The stream is {@link Spliterator#SIZED sized} and is split at chunk boundaries, so all the chunks except
+     * the last one have the specified size even if the stream is parallel.
+     *
+     * @param list     The list
+     * @param size     The list (chunk) max size
+     * @param parallel {@code true} for a parallel stream, {@code false} for a sequential stream
+     * @param <T>      The element type.
+     * @return A stream of lists with the specified maximum size.
+     */
+    public static <T> Stream<List<T>> chunkify(List<T> list, int size, boolean parallel) {
+        requirePositiveSize(size);
+        List<T> source = list instanceof RandomAccess ? list : new ArrayList<>(list);
+        int chunks = source.isEmpty() ? 0 : (source.size() - 1) / size + 1;
+        return StreamSupport.stream(new ListChunkSpliterator<>(source, size, 0, chunks), parallel);
+    }
+
+    /**
+     * Transforms a spliterator into a stream of lists with a maximum size.
+     * <p>
+     * The stream is split whenever the source spliterator can be split, each part being chunked independently,
+     * so in a parallel stream some chunks other than the last one may be smaller than the specified size.
+     * The stream is {@link Spliterator#SIZED sized} if the source spliterator is sized.
+     *
+     * @param spliterator The spliterator
+     * @param size        The list (chunk) max size
+     * @param parallel    {@code true} for a parallel stream, {@code false} for a sequential stream
+     * @param <T>         The element type.
+     * @return A stream of lists with the specified maximum size.
+     */
+    public static <T> Stream<List<T>> chunkify(Spliterator<T> spliterator, int size, boolean parallel) {
+        requirePositiveSize(size);
+        return StreamSupport.stream(new ChunkSpliterator<>(spliterator, size), parallel);
+    }
+
+    /**
+     * Transforms a stream into a stream of lists with a maximum size, keeping the stream parallelism.
+     *
+     * @param stream The stream
+     * @param size   The list (chunk) max size
+     * @param <T>    The element type.
+     * @return A stream of lists with the specified maximum size.
+     * @see #chunkify(Spliterator, int, boolean)
+     */
+    public static <T> Stream<List<T>> chunkify(Stream<T> stream, int size) {
+        return chunkify(stream.spliterator(), size, stream.isParallel()).onClose(stream::close);
+    }
+
+    /**
+     * Transforms a list of {@code int} values into a stream of arrays with a maximum length.
+     * <p>
+     * The stream is {@link Spliterator#SIZED sized} and is split at chunk boundaries, so all the chunks except
+     * the last one have the specified size even if the stream is parallel.
+     *
+     * @param list     The list
+     * @param size     The array (chunk) max length
+     * @param parallel {@code true} for a parallel stream, {@code false} for a sequential stream
+     * @return A stream of arrays with the specified maximum length.
+     * @see #chunkify(List, int, boolean)
+     */
+    public static Stream<int[]> chunkifyInts(IntArrayList list, int size, boolean parallel) {
+        requirePositiveSize(size);
+        int count = list.size();
+        int chunks = count == 0 ? 0 : (count - 1) / size + 1;
+        IntStream indexes = IntStream.range(0, chunks);
+        return (parallel ? indexes.parallel() : indexes)
+                .mapToObj(chunk -> list.toArray(chunk * size, (int) Math.min((long) chunk * size + size, count)));
+    }
+
+    /**
+     * Transforms an iterator of {@code int} values into a stream of arrays with a maximum length.
+     *
+     * @param iterator The iterator
+     * @param size     The array (chunk) max length
+     * @return A stream of arrays with the specified maximum length.
+     * @see IntArrayList#iterator()
+     */
+    public static Stream<int[]> chunkifyInts(PrimitiveIterator.OfInt iterator, int size) {
+        requirePositiveSize(size);
+        Iterator<int[]> arrayIterator = new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public int[] next() {
+                int[] result = new int[size];
+                int count = 0;
+                while (count < size && iterator.hasNext()) {
+                    result[count++] = iterator.nextInt();
+                }
+                return count == size ? result : Arrays.copyOf(result, count);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(arrayIterator, Spliterator.ORDERED), false);
+    }
+
+    /**
+     * Transforms an iterator of {@code long} values into a stream of arrays with a maximum length.
+     *
+     * @param iterator The iterator
+     * @param size     The array (chunk) max length
+     * @return A stream of arrays with the specified maximum length.
+     * @see LongHashSet#iterator()
+     * @see LongLongHashMap#keyIterator()
+     */
+    public static Stream<long[]> chunkifyLongs(PrimitiveIterator.OfLong iterator, int size) {
+        requirePositiveSize(size);
+        Iterator<long[]> arrayIterator = new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public long[] next() {
+                long[] result = new long[size];
+                int count = 0;
+                while (count < size && iterator.hasNext()) {
+                    result[count++] = iterator.nextLong();
+                }
+                return count == size ? result : Arrays.copyOf(result, count);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(arrayIterator, Spliterator.ORDERED), false);
+    }
+
+    /**
+     * Groups the elements of the iterator in chunks with a maximum size and processes them on the specified executor.
+     * <p>
+     * The calling thread reads the iterator and blocks while {@code maxInFlight} chunks are submitted and not yet
+     * processed, so the memory used by the pending chunks is bounded. The submission stops at the first failure
+     * or if the calling thread is interrupted.
+     *
+     * @param iterator    The iterator
+     * @param size        The list (chunk) max size
+     * @param executor    The executor processing the chunks
+     * @param maxInFlight The maximum number of chunks submitted and not yet processed
+     * @param action      The action processing a chunk
+     * @param <T>         The element type.
+     * @return A future completed when all the submitted chunks are processed, or exceptionally with the first failure.
+     */
+    public static <T> CompletableFuture<Void> forEachChunk(Iterator<T> iterator, int size, Executor executor,
+                                                           int maxInFlight, Consumer<? super List<T>> action) {
+        Objects.requireNonNull(executor, "executor");
+        Objects.requireNonNull(action, "action");
+        requirePositiveSize(size);
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("The maximum number of in-flight chunks must be positive.");
+        }
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        // the submitting thread holds one pending count until all the chunks are submitted
+        AtomicInteger pending = new AtomicInteger(1);
+        Runnable completion = () -> {
+            if (pending.decrementAndGet() == 0) {
+                result.complete(null);
+            }
+        };
+
+        Iterator<List<T>> chunks = chunkify(iterator, size).iterator();
+        try {
+            while (!result.isDone() && chunks.hasNext()) {
+                inFlight.acquire();
+                List<T> chunk = chunks.next();
+                pending.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        action.accept(chunk);
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    } finally {
+                        inFlight.release();
+                        completion.run();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        completion.run();
+        return result;
+    }
+
+    private static void requirePositiveSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive.");
+        }
+    }
+
+    /**
+     * Spliterator of the chunks of a random access list, split at chunk boundaries.
+     *
+     * @param <T> The element type.
+     */
+    private static final class ListChunkSpliterator<T> implements Spliterator<List<T>> {
+
+        private final List<T> list;
+        private final int size;
+        private int chunk;
+        private final int endChunk;
+
+        private ListChunkSpliterator(List<T> list, int size, int chunk, int endChunk) {
+            this.list = list;
+            this.size = size;
+            this.chunk = chunk;
+            this.endChunk = endChunk;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            if (chunk >= endChunk) {
+                return false;
+            }
+            int from = chunk++ * size;
+            action.accept(new ArrayList<>(list.subList(from, Math.min(list.size(), from + size))));
+            return true;
+        }
+
+        @Override
+        public Spliterator<List<T>> trySplit() {
+            int middle = (chunk + endChunk) >>> 1;
+            if (middle <= chunk) {
+                return null;
+            }
+            ListChunkSpliterator<T> prefix = new ListChunkSpliterator<>(list, size, chunk, middle);
+            chunk = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) endChunk - chunk;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+    }
+
+    /**
+     * Spliterator of the chunks of a source spliterator, split whenever the source can be split.
+     *
+     * @param <T> The element type.
+     */
+    private static final class ChunkSpliterator<T> implements Spliterator<List<T>> {
+
+        private final Spliterator<T> source;
+        private final int size;
+
+        private ChunkSpliterator(Spliterator<T> source, int size) {
+            this.source = Objects.requireNonNull(source, "spliterator");
+            this.size = size;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            List<T> chunk = new ArrayList<>(size);
+            while (chunk.size() < size && source.tryAdvance(chunk::add)) {
+                // keep filling the chunk
+            }
+            if (chunk.isEmpty()) {
+                return false;
+            }
+            action.accept(chunk);
+            return true;
+        }
+
+        @Override
+        public Spliterator<List<T>> trySplit() {
+            Spliterator<T> prefix = source.trySplit();
+            return prefix == null ? null : new ChunkSpliterator<>(prefix, size);
+        }
+
+        @Override
+        public long estimateSize() {
+            long estimate = source.estimateSize();
+            return estimate == Long.MAX_VALUE ? Long.MAX_VALUE : (estimate + size - 1) / size;
+        }
+
+        @Override
+        public int characteristics() {
+            return (source.characteristics() & (Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED))
+                    | Spliterator.NONNULL;
+        }
+    }
 }
@@ -0,0 +1,225 @@
+package io.github.amanzat.util;
+
+import lombok.Builder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive concurrency limiter, adjusting the maximum number of concurrent operations with the AIMD
+ * (additive increase, multiplicative decrease) algorithm.
+ * <p>
+ * Each operation acquires a {@link Permit} and releases it when it completes. The limit grows by about one for each
+ * {@code limit} operations completed within the latency threshold, and is multiplied by the backoff ratio when an
+ * operation is slower than the threshold or is {@link Permit#releaseDropped() dropped} (e.g. timed out or rejected by
+ * an overloaded service), so the concurrency converges to what the downstream service can handle.
+ * <p>
+ * The limiter is lock-free: the timed and blocking acquires poll with a {@link WaitStrategy#backoff backoff} wait strategy.
+ *
+ * @see RateLimiter
+ * @see ThreadUtils#safeAcquire(java.util.concurrent.Semaphore)
+ */
+public final class ConcurrencyLimiter {
+
+    /**
+     * The strategy used while waiting for a permit: short spins and yields, then parking up to a millisecond.
+     */
+    private static final WaitStrategy WAIT_STRATEGY = WaitStrategy.backoff(10, 10, Duration.ofNanos(10_000), Duration.ofMillis(1));
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final LongSupplier ticker;
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     * Creates a concurrency limiter.
+     *
+     * @param initialLimit     The initial limit
+     * @param minLimit         The minimum limit
+     * @param maxLimit         The maximum limit
+     * @param latencyThreshold The latency above which an operation is considered a sign of overload
+     * @param backoffRatio     The ratio, between 0 and 1 exclusive, applied to the limit on overload
+     * @param ticker           The source of {@link System#nanoTime()} values, {@code null} for the system ticker
+     */
+    @Builder
+    private ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio,
+                               LongSupplier ticker) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("The limits must be positive and min <= initial <= max.");
+        }
+        if (!(backoffRatio > 0 && backoffRatio < 1)) {
+            throw new IllegalArgumentException("The backoff ratio must be between 0 and 1.");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = ThreadUtils.toNanos(latencyThreshold);
+        this.backoffRatio = backoffRatio;
+        this.ticker = ticker == null ? System::nanoTime : ticker;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+    }
+
+    /**
+     * Acquires a permit if the limit is not reached.
+     *
+     * @return The permit or {@code null} if the limit is reached.
+     */
+    public Permit tryAcquire() {
+        Permit permit = acquireIfAvailable();
+        if (permit == null) {
+            rejected.increment();
+        }
+        return permit;
+    }
+
+    /**
+     * Acquires a permit, waiting at most for the specified timeout while the limit is reached.
+     *
+     * @param timeout The maximum time to wait
+     * @return The permit or {@code null} if the timeout elapsed or the thread was interrupted.
+     */
+    public Permit tryAcquire(Duration timeout) {
+        Permit permit = acquireIfAvailable();
+        if (permit == null) {
+            long start = System.nanoTime();
+            permit = ThreadUtils.poll(this::acquireIfAvailable, WAIT_STRATEGY, timeout);
+            waitNanos.add(System.nanoTime() - start);
+            if (permit == null) {
+                rejected.increment();
+            }
+        }
+        return permit;
+    }
+
+    /**
+     * Acquires a permit, waiting while the limit is reached.
+     *
+     * @return The permit or {@code null} if the thread was interrupted.
+     */
+    public Permit safeAcquire() {
+        return tryAcquire(Duration.ofNanos(Long.MAX_VALUE));
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return The current limit.
+     */
+    public int getLimit() {
+        return (int) limit();
+    }
+
+    /**
+     * Returns the number of acquired permits not yet released.
+     *
+     * @return The number of acquired permits not yet released.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the concurrency limiter.
+     *
+     * @return The statistics of the concurrency limiter.
+     */
+    public Stats stats() {
+        return new Stats(acquired.sum(), rejected.sum(), dropped.sum(), waitNanos.sum(), getLimit());
+    }
+
+    private Permit acquireIfAvailable() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                acquired.increment();
+                return new Permit(ticker.getAsLong());
+            }
+        }
+    }
+
+    private double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    private void onRelease(long startNanos, boolean overloaded) {
+        inFlight.decrementAndGet();
+        boolean decrease = overloaded || ticker.getAsLong() - startNanos > latencyThresholdNanos;
+        while (true) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double next = decrease
+                    ? Math.max(minLimit, limit * backoffRatio)
+                    : Math.min(maxLimit, limit + 1 / limit);
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A permit acquired from a {@link ConcurrencyLimiter}, which must be released exactly once when the operation completes.
+     * The next releases have no effect.
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Releases the permit of an operation which completed, adjusting the limit with the operation latency.
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                onRelease(startNanos, false);
+            }
+        }
+
+        /**
+         * Releases the permit of an operation which was dropped because of an overload, decreasing the limit.
+         */
+        public void releaseDropped() {
+            if (released.compareAndSet(false, true)) {
+                dropped.increment();
+                onRelease(startNanos, true);
+            }
+        }
+
+        /**
+         * Releases the permit of an operation which failed for a reason unrelated to the load, without adjusting the limit.
+         */
+        public void releaseIgnored() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * The statistics of a concurrency limiter.
+     *
+     * @param acquired       The number of acquired permits
+     * @param rejected       The number of acquires which didn't get a permit
+     * @param dropped        The number of permits released as dropped
+     * @param totalWaitNanos The total time spent waiting for permits
+     * @param limit          The current limit
+     */
+    public record Stats(long acquired, long rejected, long dropped, long totalWaitNanos, int limit) {
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.amanzat.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A striped counter for hot paths updated by many threads.
+ * <p>
+ * The updates are spread over several cells when threads contend, so they don't serialize on a single
+ * {@link java.util.concurrent.atomic.AtomicLong AtomicLong}, and they don't allocate. Reading the {@link #sum()} is
+ * more expensive and is meant for periodic snapshots.
+ *
+ * @see MetricsRegistry#counter(String)
+ */
+public final class Counter {
+
+    private final LongAdder adder = new LongAdder();
+
+    /**
+     * Increments the counter by one.
+     */
+    public void increment() {
+        adder.increment();
+    }
+
+    /**
+     * Adds the specified value to the counter.
+     *
+     * @param value The value to add
+     */
+    public void add(long value) {
+        adder.add(value);
+    }
+
+    /**
+     * Returns the sum of the counter. The concurrent updates may or may not be included.
+     *
+     * @return The sum of the counter.
+     */
+    public long sum() {
+        return adder.sum();
+    }
+
+    /**
+     * Returns the sum of the counter and resets it to zero. The concurrent updates may be lost.
+     *
+     * @return The sum of the counter before the reset.
+     */
+    public long sumThenReset() {
+        return adder.sumThenReset();
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(sum());
+    }
+}
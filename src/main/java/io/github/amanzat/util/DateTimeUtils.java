@@ -3,9 +3,10 @@ package io.github.amanzat.util;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.event.Level;
 
 import java.time.Duration;
-import java.time.format.DateTimeParseException;
+import java.util.Optional;
 
 /**
  * Miscellaneous date and time utility methods and constants.
@@ -29,6 +30,39 @@ public final class DateTimeUtils {
      */
     public static final long SECOND_MILLIS = Duration.ofSeconds(1).toMillis();
 
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final long SECOND_NANOS = Duration.ofSeconds(1).toNanos();
+
+    /**
+     * The maximum number of parsed durations kept in the cache.
+     */
+    private static final int DURATION_CACHE_SIZE = 256;
+
+    /**
+     * The cache of the parsed durations, an empty optional marking an invalid value.
+     */
+    private static final BoundedCache<String, Optional<Duration>> DURATION_CACHE =
+            BoundedCache.<String, Optional<Duration>>builder().maximumSize(DURATION_CACHE_SIZE).build();
+
+    /**
+     * The tens digit of the numbers from 0 to 99.
+     */
+    private static final char[] DIGIT_TENS = new char[100];
+
+    /**
+     * The ones digit of the numbers from 0 to 99.
+     */
+    private static final char[] DIGIT_ONES = new char[100];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_TENS[i] = (char) ('0' + i / 10);
+            DIGIT_ONES[i] = (char) ('0' + i % 10);
+        }
+    }
+
     /**
      * Formats the time duration in millis using the {@code HH:mm:ss.SSS} format.
      *
@@ -36,23 +70,189 @@ public final class DateTimeUtils {
      * @return The formatted time duration.
      */
     public static String formatDurationHMS(long millis) {
-        if (millis < 0) {
-            throw new IllegalArgumentException("The time duration in millis can't be negative.");
+        return appendDurationHMS(new StringBuilder(12), millis).toString();
+    }
+
+    /**
+     * Appends the time duration in millis using the {@code HH:mm:ss.SSS} format, without creating intermediate objects.
+     * <br>The hours have at least two digits and are not limited to 99.
+     *
+     * @param target The target builder
+     * @param millis The time duration in millis
+     * @return The target builder.
+     */
+    public static StringBuilder appendDurationHMS(StringBuilder target, long millis) {
+        return appendDurationHMS(target, requireNonNegative(millis), SECOND_MILLIS);
+    }
+
+    /**
+     * Appends the time duration in nanos using the {@code HH:mm:ss.SSSSSSSSS} format, without creating intermediate objects.
+     * <br>The hours have at least two digits and are not limited to 99.
+     *
+     * @param target The target builder
+     * @param nanos  The time duration in nanos
+     * @return The target builder.
+     */
+    public static StringBuilder appendDurationHMSNanos(StringBuilder target, long nanos) {
+        return appendDurationHMS(target, requireNonNegative(nanos), SECOND_NANOS);
+    }
+
+    /**
+     * Writes the time duration in millis using the {@code HH:mm:ss.SSS} format into the character buffer.
+     *
+     * @param millis The time duration in millis
+     * @param buffer The character buffer, with enough room for the formatted duration
+     * @param offset The buffer offset to start writing at
+     * @return The buffer offset after the last written character.
+     */
+    public static int formatDurationHMS(long millis, char[] buffer, int offset) {
+        return formatDurationHMS(requireNonNegative(millis), SECOND_MILLIS, 3, buffer, offset);
+    }
+
+    /**
+     * Writes the time duration in nanos using the {@code HH:mm:ss.SSSSSSSSS} format into the character buffer.
+     *
+     * @param nanos  The time duration in nanos
+     * @param buffer The character buffer, with enough room for the formatted duration
+     * @param offset The buffer offset to start writing at
+     * @return The buffer offset after the last written character.
+     */
+    public static int formatDurationHMSNanos(long nanos, char[] buffer, int offset) {
+        return formatDurationHMS(requireNonNegative(nanos), SECOND_NANOS, 9, buffer, offset);
+    }
+
+    /**
+     * Writes the time duration in millis using the {@code HH:mm:ss.SSS} format as ASCII bytes into the byte buffer.
+     *
+     * @param millis The time duration in millis
+     * @param buffer The byte buffer, with enough room for the formatted duration
+     * @param offset The buffer offset to start writing at
+     * @return The buffer offset after the last written byte.
+     */
+    public static int formatDurationHMS(long millis, byte[] buffer, int offset) {
+        return formatDurationHMS(requireNonNegative(millis), SECOND_MILLIS, 3, buffer, offset);
+    }
+
+    /**
+     * Writes the time duration in nanos using the {@code HH:mm:ss.SSSSSSSSS} format as ASCII bytes into the byte buffer.
+     *
+     * @param nanos  The time duration in nanos
+     * @param buffer The byte buffer, with enough room for the formatted duration
+     * @param offset The buffer offset to start writing at
+     * @return The buffer offset after the last written byte.
+     */
+    public static int formatDurationHMSNanos(long nanos, byte[] buffer, int offset) {
+        return formatDurationHMS(requireNonNegative(nanos), SECOND_NANOS, 9, buffer, offset);
+    }
+
+    private static long requireNonNegative(long duration) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("The time duration can't be negative.");
         }
-        long hours = Math.floorDiv(millis, HOUR_MILLIS);
-        millis = millis % HOUR_MILLIS;
-        long minutes = Math.floorDiv(millis, MINUTE_MILLIS);
-        millis = millis % MINUTE_MILLIS;
-        long seconds = Math.floorDiv(millis, SECOND_MILLIS);
-        millis = millis % SECOND_MILLIS;
-        return StringUtils.leftPad(String.valueOf(hours), 2, '0') + ':' +
-                StringUtils.leftPad(String.valueOf(minutes), 2, '0') + ':' +
-                StringUtils.leftPad(String.valueOf(seconds), 2, '0') + '.' +
-                StringUtils.leftPad(String.valueOf(millis), 3, '0');
+        return duration;
+    }
+
+    private static StringBuilder appendDurationHMS(StringBuilder target, long duration, long unitsPerSecond) {
+        long totalSeconds = duration / unitsPerSecond;
+        long hours = totalSeconds / 3600;
+        int minutes = (int) (totalSeconds / 60 % 60);
+        int seconds = (int) (totalSeconds % 60);
+        if (hours < 100) {
+            target.append(DIGIT_TENS[(int) hours]).append(DIGIT_ONES[(int) hours]);
+        } else {
+            // appending a long doesn't allocate
+            target.append(hours);
+        }
+        target.append(':').append(DIGIT_TENS[minutes]).append(DIGIT_ONES[minutes])
+                .append(':').append(DIGIT_TENS[seconds]).append(DIGIT_ONES[seconds])
+                .append('.');
+        long fraction = duration % unitsPerSecond;
+        for (long divisor = unitsPerSecond / 10; divisor > 0; divisor /= 10) {
+            target.append((char) ('0' + fraction / divisor % 10));
+        }
+        return target;
+    }
+
+    private static int formatDurationHMS(long duration, long unitsPerSecond, int fractionDigits, char[] buffer, int offset) {
+        long totalSeconds = duration / unitsPerSecond;
+        long hours = totalSeconds / 3600;
+        int minutes = (int) (totalSeconds / 60 % 60);
+        int seconds = (int) (totalSeconds % 60);
+        int position = offset + Math.max(2, digits(hours));
+        // write the hours backwards, two digits at a time
+        for (int i = position; i > offset; i -= 2) {
+            int pair = (int) (hours % 100);
+            hours /= 100;
+            buffer[i - 1] = DIGIT_ONES[pair];
+            if (i - 2 >= offset) {
+                buffer[i - 2] = DIGIT_TENS[pair];
+            }
+        }
+        buffer[position++] = ':';
+        buffer[position++] = DIGIT_TENS[minutes];
+        buffer[position++] = DIGIT_ONES[minutes];
+        buffer[position++] = ':';
+        buffer[position++] = DIGIT_TENS[seconds];
+        buffer[position++] = DIGIT_ONES[seconds];
+        buffer[position++] = '.';
+        long fraction = duration % unitsPerSecond;
+        for (int i = position + fractionDigits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        return position + fractionDigits;
+    }
+
+    private static int formatDurationHMS(long duration, long unitsPerSecond, int fractionDigits, byte[] buffer, int offset) {
+        long totalSeconds = duration / unitsPerSecond;
+        long hours = totalSeconds / 3600;
+        int minutes = (int) (totalSeconds / 60 % 60);
+        int seconds = (int) (totalSeconds % 60);
+        int position = offset + Math.max(2, digits(hours));
+        // write the hours backwards, two digits at a time
+        for (int i = position; i > offset; i -= 2) {
+            int pair = (int) (hours % 100);
+            hours /= 100;
+            buffer[i - 1] = (byte) DIGIT_ONES[pair];
+            if (i - 2 >= offset) {
+                buffer[i - 2] = (byte) DIGIT_TENS[pair];
+            }
+        }
+        buffer[position++] = ':';
+        buffer[position++] = (byte) DIGIT_TENS[minutes];
+        buffer[position++] = (byte) DIGIT_ONES[minutes];
+        buffer[position++] = ':';
+        buffer[position++] = (byte) DIGIT_TENS[seconds];
+        buffer[position++] = (byte) DIGIT_ONES[seconds];
+        buffer[position++] = '.';
+        long fraction = duration % unitsPerSecond;
+        for (int i = position + fractionDigits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        return position + fractionDigits;
+    }
+
+    /**
+     * Returns the number of decimal digits of the non-negative value.
+     *
+     * @param value The non-negative value
+     * @return The number of decimal digits.
+     */
+    private static int digits(long value) {
+        int digits = 1;
+        for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+            digits++;
+        }
+        return digits;
     }
 
     /**
      * Parses the specified string value to a {@link Duration} if possible, otherwise returns {@code null}.
+     * <p>
+     * Both the ISO-8601 format, e.g. {@code PT2H30M}, and the human-friendly format, e.g. {@code 2h30m} or {@code 150ms},
+     * are supported, see {@link #parseDuration(CharSequence)}. The parsed values are kept in a small bounded cache
+     * and the parsing failures are logged with a rate limit, see {@link Slf4jUtils#logRateLimited(org.slf4j.Logger, Level, String, Object)}.
      *
      * @param value The string value
      * @return The corresponding duration or {@code null}.
@@ -62,11 +262,271 @@ public final class DateTimeUtils {
             return null;
         }
 
-        try {
-            return Duration.parse(value);
-        } catch (DateTimeParseException e) {
-            logger.warn("Error parsing {} to Duration.", value);
+        Optional<Duration> duration = DURATION_CACHE.get(value, key -> Optional.ofNullable(parseDuration(key)));
+        if (duration.isEmpty()) {
+            Slf4jUtils.logRateLimited(logger, Level.WARN, "Error parsing {} to Duration.", value);
+        }
+        return duration.orElse(null);
+    }
+
+    /**
+     * Parses the specified value to a {@link Duration} without throwing exceptions.
+     * <p>
+     * The supported formats are:
+     * <ul>
+     *     <li>ISO-8601 - the format accepted by {@link Duration#parse(CharSequence)}, e.g. {@code PT1.5S},
+     *     {@code P2DT3H4M} or {@code -PT6H3M}</li>
+     *     <li>human-friendly - a sequence of integer amounts followed by a unit, optionally separated by spaces and
+     *     preceded by a sign, e.g. {@code 150ms}, {@code 2h30m} or {@code 1d 12h}. The supported units are
+     *     {@code d}, {@code h}, {@code m}, {@code s}, {@code ms}, {@code us} (or {@code µs}) and {@code ns}</li>
+     * </ul>
+     * The letters are case-insensitive in both formats and the surrounding whitespaces are ignored.
+     *
+     * @param value The value to parse
+     * @return The corresponding duration or {@code null} if the value is blank, invalid or out of range.
+     */
+    public static Duration parseDuration(CharSequence value) {
+        if (StringUtils.isBlank(value)) {
             return null;
         }
+        return new DurationParser(value).parse();
+    }
+
+    /**
+     * Parser of the ISO-8601 and human-friendly duration formats, reporting failures without exceptions.
+     */
+    private static final class DurationParser {
+
+        private static final long MINUTE_SECONDS = 60;
+        private static final long HOUR_SECONDS = 60 * MINUTE_SECONDS;
+        private static final long DAY_SECONDS = 24 * HOUR_SECONDS;
+
+        private final CharSequence text;
+        private int position;
+        private final int end;
+        private long seconds;
+        private long nanos;
+        private boolean negativeNumber;
+        private boolean failed;
+
+        private DurationParser(CharSequence text) {
+            this.text = text;
+            int start = 0;
+            int stop = text.length();
+            while (start < stop && Character.isWhitespace(text.charAt(start))) {
+                start++;
+            }
+            while (stop > start && Character.isWhitespace(text.charAt(stop - 1))) {
+                stop--;
+            }
+            this.position = start;
+            this.end = stop;
+        }
+
+        private Duration parse() {
+            boolean negative = false;
+            char c = text.charAt(position);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                position++;
+            }
+            if (position < end && (text.charAt(position) == 'P' || text.charAt(position) == 'p')) {
+                position++;
+                parseIso();
+            } else {
+                parseHumanFriendly();
+            }
+            if (failed) {
+                return null;
+            }
+
+            // normalize the nanos
+            if (!addSeconds(Math.floorDiv(nanos, SECOND_NANOS), 1)) {
+                return null;
+            }
+            nanos = Math.floorMod(nanos, SECOND_NANOS);
+            if (negative) {
+                if (seconds == Long.MIN_VALUE) {
+                    return null;
+                }
+                seconds = -seconds;
+                nanos = -nanos;
+            }
+            return Duration.ofSeconds(seconds, nanos);
+        }
+
+        private void parseIso() {
+            boolean days = false;
+            if (position < end && !isChar('T')) {
+                long amount = number(true);
+                if (failed || !isChar('D')) {
+                    failed = true;
+                    return;
+                }
+                position++;
+                addSeconds(amount, DAY_SECONDS);
+                days = true;
+            }
+            if (position == end) {
+                failed |= !days;
+                return;
+            }
+            if (!isChar('T')) {
+                failed = true;
+                return;
+            }
+            position++;
+
+            // the time components must be in order: hours, minutes and seconds
+            int lastComponent = 0;
+            while (!failed && position < end) {
+                long amount = number(true);
+                boolean negativeAmount = negativeNumber;
+                long fraction = 0;
+                if (!failed && position < end && (text.charAt(position) == '.' || text.charAt(position) == ',')) {
+                    position++;
+                    fraction = fraction();
+                    if (!isChar('S')) {
+                        failed = true;
+                    }
+                }
+                int component = isChar('H') ? 1 : isChar('M') ? 2 : isChar('S') ? 3 : 0;
+                if (failed || component <= lastComponent) {
+                    failed = true;
+                    return;
+                }
+                position++;
+                lastComponent = component;
+                addSeconds(amount, component == 1 ? HOUR_SECONDS : component == 2 ? MINUTE_SECONDS : 1);
+                nanos += negativeAmount ? -fraction : fraction;
+            }
+            // at least one time component is expected after 'T'
+            failed |= lastComponent == 0;
+        }
+
+        private void parseHumanFriendly() {
+            boolean any = false;
+            while (!failed && position < end) {
+                while (position < end && text.charAt(position) == ' ') {
+                    position++;
+                }
+                long amount = number(false);
+                int unitStart = position;
+                while (position < end && Character.isLetter(text.charAt(position))) {
+                    position++;
+                }
+                if (failed) {
+                    return;
+                }
+                addUnit(amount, unitStart, position - unitStart);
+                any = true;
+            }
+            failed |= !any;
+        }
+
+        private void addUnit(long amount, int unitStart, int unitLength) {
+            if (unitLength == 0) {
+                failed = true;
+                return;
+            }
+            char first = Character.toLowerCase(text.charAt(unitStart));
+            if (unitLength == 1) {
+                switch (first) {
+                    case 'd' -> addSeconds(amount, DAY_SECONDS);
+                    case 'h' -> addSeconds(amount, HOUR_SECONDS);
+                    case 'm' -> addSeconds(amount, MINUTE_SECONDS);
+                    case 's' -> addSeconds(amount, 1);
+                    default -> failed = true;
+                }
+            } else if (unitLength == 2 && Character.toLowerCase(text.charAt(unitStart + 1)) == 's') {
+                switch (first) {
+                    case 'm' -> addSubSeconds(amount, 1_000_000);
+                    case 'u', 'µ', 'μ' -> addSubSeconds(amount, 1_000);
+                    case 'n' -> addSubSeconds(amount, 1);
+                    default -> failed = true;
+                }
+            } else {
+                failed = true;
+            }
+        }
+
+        /**
+         * Parses an integer number with an optional sign, failing if there are no digits or on overflow.
+         *
+         * @param signed {@code true} if a sign is allowed
+         * @return The number.
+         */
+        private long number(boolean signed) {
+            negativeNumber = false;
+            if (signed && position < end && (text.charAt(position) == '-' || text.charAt(position) == '+')) {
+                negativeNumber = text.charAt(position) == '-';
+                position++;
+            }
+            int start = position;
+            long value = 0;
+            while (position < end) {
+                int digit = text.charAt(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                if (value > (Long.MAX_VALUE - digit) / 10) {
+                    failed = true;
+                    return 0;
+                }
+                value = value * 10 + digit;
+                position++;
+            }
+            failed |= position == start;
+            return negativeNumber ? -value : value;
+        }
+
+        /**
+         * Parses up to 9 fraction digits of a second.
+         *
+         * @return The fraction in nanos.
+         */
+        private long fraction() {
+            long value = 0;
+            int digits = 0;
+            while (position < end && digits < 9) {
+                int digit = text.charAt(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+                digits++;
+                position++;
+            }
+            for (; digits < 9; digits++) {
+                value *= 10;
+            }
+            return value;
+        }
+
+        private boolean isChar(char upperCase) {
+            return position < end && Character.toUpperCase(text.charAt(position)) == upperCase;
+        }
+
+        private void addSubSeconds(long amount, long unitNanos) {
+            long perSecond = SECOND_NANOS / unitNanos;
+            if (addSeconds(amount / perSecond, 1)) {
+                nanos += amount % perSecond * unitNanos;
+            }
+        }
+
+        private boolean addSeconds(long amount, long multiplier) {
+            if (amount > Long.MAX_VALUE / multiplier || amount < Long.MIN_VALUE / multiplier) {
+                failed = true;
+                return false;
+            }
+            long product = amount * multiplier;
+            long sum = seconds + product;
+            if (((seconds ^ sum) & (product ^ sum)) < 0) {
+                failed = true;
+                return false;
+            }
+            seconds = sum;
+            return true;
+        }
     }
 }
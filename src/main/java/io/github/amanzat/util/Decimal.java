@@ -0,0 +1,428 @@
+package io.github.amanzat.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Immutable decimal number represented by an unscaled {@code long} value and a scale, like a compact {@link BigDecimal}.
+ * <p>
+ * The arithmetic operations work on the primitive representation and only fall back to {@link BigDecimal} when the
+ * result doesn't fit in a {@code long}, so the common cases (e.g. money amounts) don't create any intermediate objects.
+ * The results are always the same as the ones of the equivalent {@link BigDecimal} operations, including the scale.
+ * <p>
+ * Like {@link BigDecimal}, {@link #equals(Object)} compares the values and the scales, while
+ * {@link #compareTo(Decimal)} compares only the values.
+ *
+ * @see NumberUtils#safeParseDecimal(String)
+ */
+public final class Decimal extends Number implements Comparable<Decimal> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The decimal 0, with scale 0.
+     */
+    public static final Decimal ZERO = new Decimal(0, 0);
+
+    /**
+     * The decimal 1, with scale 0.
+     */
+    public static final Decimal ONE = new Decimal(1, 0);
+
+    /**
+     * The value used to signal overflows of the unscaled values, which are then computed with {@link BigDecimal}.
+     */
+    private static final long OVERFLOW = Long.MIN_VALUE;
+
+    /**
+     * The maximum power of ten which fits in a {@code long}.
+     */
+    private static final int MAX_LONG_POWER_OF_TEN = 18;
+
+    private final long unscaled;
+    private final int scale;
+    /**
+     * The value if it doesn't fit in a {@code long}, {@code null} otherwise.
+     */
+    private final BigDecimal big;
+
+    private Decimal(long unscaled, int scale) {
+        this.unscaled = unscaled;
+        this.scale = scale;
+        this.big = null;
+    }
+
+    private Decimal(BigDecimal big) {
+        this.unscaled = 0;
+        this.scale = big.scale();
+        this.big = big;
+    }
+
+    /**
+     * Returns the decimal with the specified unscaled value and scale, i.e. {@code unscaled * 10^-scale}.
+     *
+     * @param unscaled The unscaled value
+     * @param scale    The scale
+     * @return The decimal.
+     */
+    public static Decimal valueOf(long unscaled, int scale) {
+        return unscaled == 0 && scale == 0 ? ZERO : new Decimal(unscaled, scale);
+    }
+
+    /**
+     * Returns the decimal with the specified integer value and scale 0.
+     *
+     * @param value The value
+     * @return The decimal.
+     */
+    public static Decimal valueOf(long value) {
+        return valueOf(value, 0);
+    }
+
+    /**
+     * Returns the decimal with the value and scale of the specified {@link BigDecimal}.
+     *
+     * @param value The value
+     * @return The decimal.
+     */
+    public static Decimal valueOf(BigDecimal value) {
+        BigInteger unscaledValue = value.unscaledValue();
+        return unscaledValue.bitLength() < Long.SIZE
+                ? valueOf(unscaledValue.longValue(), value.scale())
+                : new Decimal(value);
+    }
+
+    /**
+     * Parses the specified value to a decimal ignoring nulls and blank values.
+     * <p>
+     * The accepted values, the resulting values and scales are the same as the ones of
+     * {@link NumberUtils#safeParseDecimal(String)}, but values with up to 18 digits are parsed without creating
+     * intermediate objects.
+     *
+     * @param value The value to parse
+     * @return The corresponding decimal if the value is valid, {@code null} otherwise.
+     */
+    public static Decimal parse(CharSequence value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        NumberUtils.DecimalParser parser = new NumberUtils.DecimalParser(value, 0, value.length());
+        if (parser.parse() && !parser.overflow) {
+            return valueOf(parser.unscaled, parser.scale);
+        }
+        BigDecimal result = NumberUtils.safeParseDecimal(value.toString());
+        return result == null ? null : valueOf(result);
+    }
+
+    /**
+     * Checks if the unscaled value fits in a {@code long}.
+     *
+     * @return {@code true} if the unscaled value fits in a {@code long}, {@code false} otherwise.
+     */
+    public boolean isCompact() {
+        return big == null;
+    }
+
+    /**
+     * Returns the unscaled value.
+     *
+     * @return The unscaled value.
+     * @throws ArithmeticException if the unscaled value doesn't fit in a {@code long}
+     * @see #isCompact()
+     */
+    public long unscaledValue() {
+        if (big != null) {
+            throw new ArithmeticException("The unscaled value doesn't fit in a long.");
+        }
+        return unscaled;
+    }
+
+    /**
+     * Returns the scale.
+     *
+     * @return The scale.
+     */
+    public int scale() {
+        return scale;
+    }
+
+    /**
+     * Returns the signum.
+     *
+     * @return -1, 0 or 1 as the value is negative, zero or positive.
+     */
+    public int signum() {
+        return big == null ? Long.signum(unscaled) : big.signum();
+    }
+
+    /**
+     * Returns the sum of this decimal and the specified one, with the maximum of their scales.
+     *
+     * @param other The other decimal
+     * @return The sum.
+     */
+    public Decimal add(Decimal other) {
+        if (big == null && other.big == null) {
+            long result = addUnscaled(unscaled, scale, other.unscaled, other.scale);
+            if (result != OVERFLOW) {
+                return new Decimal(result, Math.max(scale, other.scale));
+            }
+        }
+        return valueOf(toBigDecimal().add(other.toBigDecimal()));
+    }
+
+    /**
+     * Returns the difference between this decimal and the specified one, with the maximum of their scales.
+     *
+     * @param other The other decimal
+     * @return The difference.
+     */
+    public Decimal subtract(Decimal other) {
+        if (big == null && other.big == null && other.unscaled != Long.MIN_VALUE) {
+            long result = addUnscaled(unscaled, scale, -other.unscaled, other.scale);
+            if (result != OVERFLOW) {
+                return new Decimal(result, Math.max(scale, other.scale));
+            }
+        }
+        return valueOf(toBigDecimal().subtract(other.toBigDecimal()));
+    }
+
+    /**
+     * Returns the product of this decimal and the specified one, with the sum of their scales.
+     *
+     * @param other The other decimal
+     * @return The product.
+     */
+    public Decimal multiply(Decimal other) {
+        if (big == null && other.big == null) {
+            long result = unscaled * other.unscaled;
+            long productScale = (long) scale + other.scale;
+            if (Math.multiplyHigh(unscaled, other.unscaled) == result >> 63 && productScale == (int) productScale) {
+                return new Decimal(result, (int) productScale);
+            }
+        }
+        return valueOf(toBigDecimal().multiply(other.toBigDecimal()));
+    }
+
+    /**
+     * Returns the negation of this decimal, with the same scale.
+     *
+     * @return The negation.
+     */
+    public Decimal negate() {
+        return big == null && unscaled != Long.MIN_VALUE ? new Decimal(-unscaled, scale) : valueOf(toBigDecimal().negate());
+    }
+
+    /**
+     * Returns this decimal with the specified scale, rounding it if needed.
+     *
+     * @param newScale     The new scale
+     * @param roundingMode The rounding mode applied if digits are discarded
+     * @return The decimal with the specified scale.
+     * @throws ArithmeticException if the rounding mode is {@link RoundingMode#UNNECESSARY} and rounding is needed
+     */
+    public Decimal setScale(int newScale, RoundingMode roundingMode) {
+        Objects.requireNonNull(roundingMode, "roundingMode");
+        if (newScale == scale) {
+            return this;
+        }
+        if (big == null) {
+            long power = (long) newScale - scale;
+            if (power > 0) {
+                long result = power > Integer.MAX_VALUE ? OVERFLOW : NumberUtils.multiplyPowerOfTen(unscaled, (int) power, OVERFLOW);
+                if (result != OVERFLOW) {
+                    return new Decimal(result, newScale);
+                }
+            } else if (-power <= MAX_LONG_POWER_OF_TEN) {
+                return new Decimal(divideAndRound(unscaled, NumberUtils.powerOfTen((int) -power), roundingMode), newScale);
+            }
+        }
+        return valueOf(toBigDecimal().setScale(newScale, roundingMode));
+    }
+
+    /**
+     * Returns the {@link BigDecimal} with the same value and scale.
+     *
+     * @return The {@link BigDecimal} with the same value and scale.
+     */
+    public BigDecimal toBigDecimal() {
+        return big != null ? big : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    /**
+     * Appends the plain representation of this decimal to the specified builder, as returned by {@link #toString()}.
+     * <p>
+     * Compact decimals are appended without creating intermediate objects.
+     *
+     * @param builder The builder
+     * @return The builder.
+     */
+    public StringBuilder appendTo(StringBuilder builder) {
+        if (big != null) {
+            return builder.append(scale < 0 ? big.toString() : big.toPlainString());
+        }
+        builder.append(unscaled);
+        if (scale < 0) {
+            return builder.append("E+").append(-(long) scale);
+        }
+        if (scale > 0) {
+            int digits = stringSize(unscaled);
+            int digitsStart = builder.length() - digits;
+            if (digits > scale) {
+                builder.insert(builder.length() - scale, '.');
+            } else {
+                for (int i = digits; i < scale; i++) {
+                    builder.insert(digitsStart, '0');
+                }
+                builder.insert(digitsStart, "0.");
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Compares the values of this decimal and the specified one, ignoring their scales.
+     *
+     * @param other The other decimal
+     * @return A negative integer, zero, or a positive integer as this value is less than, equal to, or greater than the other value.
+     */
+    @Override
+    public int compareTo(Decimal other) {
+        if (big == null && other.big == null) {
+            if (scale == other.scale) {
+                return Long.compare(unscaled, other.unscaled);
+            }
+            int signum = Long.signum(unscaled);
+            int otherSignum = Long.signum(other.unscaled);
+            if (signum != otherSignum) {
+                return Integer.compare(signum, otherSignum);
+            }
+            long power = (long) scale - other.scale;
+            if (Math.abs(power) <= MAX_LONG_POWER_OF_TEN) {
+                long left = power < 0 ? NumberUtils.multiplyPowerOfTen(unscaled, (int) -power, OVERFLOW) : unscaled;
+                long right = power > 0 ? NumberUtils.multiplyPowerOfTen(other.unscaled, (int) power, OVERFLOW) : other.unscaled;
+                if (left != OVERFLOW && right != OVERFLOW) {
+                    return Long.compare(left, right);
+                }
+            }
+        }
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+
+    @Override
+    public long longValue() {
+        if (big == null && scale >= 0) {
+            return scale > MAX_LONG_POWER_OF_TEN ? 0 : unscaled / NumberUtils.powerOfTen(scale);
+        }
+        return toBigDecimal().longValue();
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        if (big == null && Math.abs(unscaled) <= 1L << 53 && unscaled != Long.MIN_VALUE
+                && scale >= -MAX_LONG_POWER_OF_TEN && scale <= MAX_LONG_POWER_OF_TEN) {
+            // both operands are exact, so the result is correctly rounded
+            double power = NumberUtils.powerOfTen(Math.abs(scale));
+            return scale >= 0 ? unscaled / power : unscaled * power;
+        }
+        return toBigDecimal().doubleValue();
+    }
+
+    /**
+     * Checks if the specified object is a decimal with the same value and scale, e.g. {@code 1.0} is not equal to {@code 1.00}.
+     *
+     * @param obj The object
+     * @return {@code true} if the object is a decimal with the same value and scale, {@code false} otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Decimal)) {
+            return false;
+        }
+        Decimal other = (Decimal) obj;
+        // a decimal which fits in a long is never represented as a BigDecimal
+        return big == null ? other.big == null && unscaled == other.unscaled && scale == other.scale : big.equals(other.big);
+    }
+
+    @Override
+    public int hashCode() {
+        return big == null ? 31 * Long.hashCode(unscaled) + scale : big.hashCode();
+    }
+
+    /**
+     * Returns the plain representation of this decimal, or the scientific one if the scale is negative, which is
+     * parsed back to an equal decimal by {@link #parse(CharSequence)} and {@link NumberUtils#safeParseDecimal(String)}.
+     *
+     * @return The string representation.
+     */
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(24)).toString();
+    }
+
+    private static long addUnscaled(long left, int leftScale, long right, int rightScale) {
+        if (leftScale < rightScale) {
+            long power = (long) rightScale - leftScale;
+            left = power > MAX_LONG_POWER_OF_TEN ? (left == 0 ? 0 : OVERFLOW) : NumberUtils.multiplyPowerOfTen(left, (int) power, OVERFLOW);
+        } else if (leftScale > rightScale) {
+            long power = (long) leftScale - rightScale;
+            right = power > MAX_LONG_POWER_OF_TEN ? (right == 0 ? 0 : OVERFLOW) : NumberUtils.multiplyPowerOfTen(right, (int) power, OVERFLOW);
+        }
+        if (left == OVERFLOW || right == OVERFLOW) {
+            return OVERFLOW;
+        }
+        long result = left + right;
+        // overflow if both operands have the sign opposite to the result
+        return ((left ^ result) & (right ^ result)) < 0 ? OVERFLOW : result;
+    }
+
+    private static long divideAndRound(long value, long divisor, RoundingMode roundingMode) {
+        long quotient = value / divisor;
+        long remainder = value % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int signum = value < 0 ? -1 : 1;
+        int half = Long.compare(Math.abs(remainder) * 2, divisor);
+        boolean increment = switch (roundingMode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> signum > 0;
+            case FLOOR -> signum < 0;
+            case HALF_UP -> half >= 0;
+            case HALF_DOWN -> half > 0;
+            case HALF_EVEN -> half > 0 || half == 0 && (quotient & 1) != 0;
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+        return increment ? quotient + signum : quotient;
+    }
+
+    /**
+     * Returns the number of digits of the specified value, excluding the sign.
+     *
+     * @param value The value
+     * @return The number of digits.
+     */
+    private static int stringSize(long value) {
+        int size = 1;
+        for (long remaining = value / 10; remaining != 0; remaining /= 10) {
+            size++;
+        }
+        return size;
+    }
+}
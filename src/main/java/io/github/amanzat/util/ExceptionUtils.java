@@ -3,15 +3,37 @@ package io.github.amanzat.util;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Miscellaneous {@link Throwable} utility methods and constants.
+ * <p>
+ * The exception chain methods are cycle-safe without allocating: the cycles are detected with Brent's algorithm,
+ * so each method is a single walk of the chain (plus the length of the cycle if any) with constant memory.
+ * <p>
+ * Filling the stack trace is the main cost of creating an exception. The {@code stackless*} and {@link #preallocated(String)}
+ * factories create exceptions without stack trace for the expected failures used as control flow, e.g. parsing errors
+ * or timeouts, and {@link #compactStackTrace(Class, int)} keeps them diagnosable with a cached, truncated call site.
  */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class ExceptionUtils {
 
+    /**
+     * The maximum number of call sites kept by {@link #compactStackTrace(Class, int)}.
+     */
+    private static final int STACK_TRACE_CACHE_SIZE = 1024;
+
+    private static final BoundedCache<CallSite, String> STACK_TRACE_CACHE =
+            BoundedCache.<CallSite, String>builder().maximumSize(STACK_TRACE_CACHE_SIZE).build();
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private static final Predicate<StackWalker.StackFrame> INTERNAL_FRAME =
+            frame -> frame.getClassName().equals(ExceptionUtils.class.getName());
+
     /**
      * Returns the first {@link Throwable throwable} of the specified type in the exception chain if exists, {@code null} otherwise.
      *
@@ -24,18 +46,88 @@ public final class ExceptionUtils {
         if (throwable == null || type == null) {
             return null;
         }
+        return type.cast(find(throwable, type, null));
+    }
+
+    /**
+     * Returns the first {@link Throwable throwable} of any of the specified types in the exception chain if exists,
+     * {@code null} otherwise.
+     * <p>
+     * The chain is walked once, so this is cheaper than calling {@link #throwableOfType(Throwable, Class)} for each type.
+     * Hot paths can pass a constant array to avoid the varargs allocation.
+     *
+     * @param throwable The {@link Throwable} to inspect
+     * @param types     The types to search for
+     * @return The first {@link Throwable throwable} of any of the specified types in the exception chain if exists, {@code null} otherwise.
+     */
+    public static Throwable throwableOfAnyType(Throwable throwable, Class<?>... types) {
+        if (throwable == null || types == null || types.length == 0) {
+            return null;
+        }
+        return find(throwable, null, types);
+    }
+
+    /**
+     * Returns the index of the first {@link Throwable throwable} of the specified type in the exception chain, the
+     * specified throwable having the index 0.
+     *
+     * @param throwable The {@link Throwable} to inspect
+     * @param type      The type to search for
+     * @return The index of the first {@link Throwable throwable} of the specified type in the exception chain if exists, -1 otherwise.
+     */
+    public static int indexOfType(Throwable throwable, Class<? extends Throwable> type) {
+        if (throwable == null || type == null) {
+            return -1;
+        }
+        return indexOf(throwable, type, null);
+    }
 
-        // keep track of throwables in the chain to avoid infinite recursion
-        Set<Throwable> throwables = new HashSet<>();
-        while (throwable != null && throwables.add(throwable)) {
-            if (type.isAssignableFrom(throwable.getClass())) {
-                // found
-                return type.cast(throwable);
+    /**
+     * Returns the root cause of the {@link Throwable throwable}: the last throwable of the exception chain, or the
+     * last distinct one if the chain has a cycle.
+     *
+     * @param throwable The throwable
+     * @return The root cause, the throwable itself if it has no cause, {@code null} if the throwable is {@code null}.
+     */
+    public static Throwable getRootCause(Throwable throwable) {
+        if (throwable == null) {
+            return null;
+        }
+        // Brent's algorithm: the hare walks the chain, the tortoise teleports to it at each power of two
+        Throwable last = throwable;
+        Throwable tortoise = throwable;
+        Throwable hare = throwable.getCause();
+        int power = 1;
+        int length = 1;
+        while (hare != null && hare != tortoise) {
+            if (length == power) {
+                tortoise = hare;
+                power <<= 1;
+                length = 0;
             }
-            throwable = throwable.getCause();
+            last = hare;
+            hare = hare.getCause();
+            length++;
         }
-        // not found
-        return null;
+        if (hare == null) {
+            return last;
+        }
+
+        // the cycle has the found length: walking with a gap of that length, the pointers meet at the start of the
+        // cycle, and the pointer ahead is then at the last distinct throwable
+        Throwable ahead = throwable;
+        Throwable beforeAhead = throwable;
+        for (int i = 0; i < length; i++) {
+            beforeAhead = ahead;
+            ahead = ahead.getCause();
+        }
+        Throwable behind = throwable;
+        while (behind != ahead) {
+            behind = behind.getCause();
+            beforeAhead = ahead;
+            ahead = ahead.getCause();
+        }
+        return beforeAhead;
     }
 
     /**
@@ -48,4 +140,218 @@ public final class ExceptionUtils {
         Throwable cause = throwable.getCause();
         return cause != null && cause != throwable ? cause : null;
     }
+
+    /**
+     * Returns the first throwable of the chain which is an instance of the type, or of any of the types.
+     *
+     * @param throwable The first throwable of the chain
+     * @param type      The type, {@code null} to search for the types
+     * @param types     The types, used if the type is {@code null}
+     * @return The first throwable of the chain which matches, {@code null} if none matches.
+     */
+    private static Throwable find(Throwable throwable, Class<?> type, Class<?>[] types) {
+        int index = indexOf(throwable, type, types);
+        if (index < 0) {
+            return null;
+        }
+        // the matching throwable is before any cycle, so it's reached again without cycle detection
+        Throwable current = throwable;
+        for (int i = 0; i < index; i++) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    /**
+     * Returns the index of the first throwable of the chain which is an instance of the type, or of any of the types.
+     *
+     * @param throwable The first throwable of the chain
+     * @param type      The type, {@code null} to search for the types
+     * @param types     The types, used if the type is {@code null}
+     * @return The index of the first throwable of the chain which matches, -1 if none matches.
+     */
+    private static int indexOf(Throwable throwable, Class<?> type, Class<?>[] types) {
+        Throwable current = throwable;
+        Throwable tortoise = throwable;
+        for (int index = 0, power = 1, length = 0; current != null; index++) {
+            if (type != null ? type.isInstance(current) : isInstance(current, types)) {
+                return index;
+            }
+            current = current.getCause();
+            if (current == tortoise) {
+                // all the throwables of the cycle were visited
+                return -1;
+            }
+            if (++length == power) {
+                tortoise = current;
+                power <<= 1;
+                length = 0;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isInstance(Throwable throwable, Class<?>[] types) {
+        for (Class<?> type : types) {
+            if (type != null && type.isInstance(throwable)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a runtime exception without stack trace.
+     *
+     * @param message The message
+     * @return The stackless exception.
+     */
+    public static StacklessException stackless(String message) {
+        return new StacklessException(message, null, true);
+    }
+
+    /**
+     * Creates a runtime exception without stack trace, with a cause.
+     *
+     * @param message The message
+     * @param cause   The cause
+     * @return The stackless exception.
+     */
+    public static StacklessException stackless(String message, Throwable cause) {
+        return new StacklessException(message, cause, true);
+    }
+
+    /**
+     * Creates an immutable runtime exception without stack trace, cause or suppressed exceptions, which can be created
+     * once, e.g. in a static field, and thrown many times by concurrent threads.
+     *
+     * @param message The message
+     * @return The immutable stackless exception.
+     */
+    public static StacklessException preallocated(String message) {
+        return new StacklessException(message, null, false);
+    }
+
+    /**
+     * Creates a {@link TimeoutException} without stack trace.
+     *
+     * @param message The message
+     * @return The stackless timeout exception.
+     */
+    public static TimeoutException stacklessTimeout(String message) {
+        return new StacklessTimeoutException(message);
+    }
+
+    /**
+     * Creates a {@link NumberFormatException} without stack trace.
+     *
+     * @param message The message
+     * @return The stackless number format exception.
+     */
+    public static NumberFormatException stacklessNumberFormat(String message) {
+        return new StacklessNumberFormatException(message);
+    }
+
+    /**
+     * Returns a compact stack trace of the current call site for a throwable type, e.g. to log with a stackless exception.
+     * <p>
+     * The frames are walked with {@link StackWalker}, walking only the needed frames, and the stack trace is cached by
+     * type and frames, so the next calls from the same call chain only identify the frames. The frames of this class
+     * are skipped.
+     *
+     * @param type      The throwable type, the first line of the stack trace
+     * @param maxFrames The maximum number of frames
+     * @return The compact stack trace, the frames being truncated to the maximum number of frames.
+     */
+    public static String compactStackTrace(Class<? extends Throwable> type, int maxFrames) {
+        if (maxFrames <= 0) {
+            throw new IllegalArgumentException("The maximum number of frames must be positive.");
+        }
+        // one more frame to know if the stack trace is truncated
+        List<StackWalker.StackFrame> frames = STACK_WALKER.walk(stream -> stream.dropWhile(INTERNAL_FRAME)
+                .limit(maxFrames + 1L)
+                .collect(Collectors.toList()));
+        // keyed by names, so the cache doesn't retain the classes and their class loaders
+        CallSite key = new CallSite(type.getName(), frames.stream()
+                .map(frame -> new Frame(frame.getClassName(), frame.getMethodName(), frame.getByteCodeIndex()))
+                .collect(Collectors.toList()));
+        String stackTrace = STACK_TRACE_CACHE.getIfPresent(key);
+        if (stackTrace == null) {
+            StringBuilder builder = new StringBuilder(type.getName());
+            for (int i = 0; i < Math.min(maxFrames, frames.size()); i++) {
+                builder.append(System.lineSeparator()).append("\tat ").append(frames.get(i).toStackTraceElement());
+            }
+            if (frames.size() > maxFrames) {
+                builder.append(System.lineSeparator()).append("\t...");
+            }
+            stackTrace = builder.toString();
+            STACK_TRACE_CACHE.put(key, stackTrace);
+        }
+        return stackTrace;
+    }
+
+    /**
+     * A call chain of {@link #compactStackTrace(Class, int)}, identified by its type and frames.
+     */
+    private record CallSite(String type, List<Frame> frames) {
+    }
+
+    /**
+     * A frame of a call chain, identified by its method and bytecode index.
+     */
+    private record Frame(String className, String methodName, int byteCodeIndex) {
+    }
+
+    /**
+     * A {@link RuntimeException} without stack trace, for the expected failures on hot paths.
+     *
+     * @see #stackless(String)
+     * @see #preallocated(String)
+     */
+    public static final class StacklessException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private StacklessException(String message, Throwable cause, boolean enableSuppression) {
+            super(message, cause, enableSuppression, false);
+        }
+    }
+
+    /**
+     * A {@link TimeoutException} without stack trace.
+     *
+     * @see #stacklessTimeout(String)
+     */
+    public static final class StacklessTimeoutException extends TimeoutException {
+
+        private static final long serialVersionUID = 1L;
+
+        private StacklessTimeoutException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * A {@link NumberFormatException} without stack trace.
+     *
+     * @see #stacklessNumberFormat(String)
+     */
+    public static final class StacklessNumberFormatException extends NumberFormatException {
+
+        private static final long serialVersionUID = 1L;
+
+        private StacklessNumberFormatException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
 }
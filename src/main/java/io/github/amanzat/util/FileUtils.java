@@ -3,13 +3,18 @@ package io.github.amanzat.util;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.event.Level;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Miscellaneous file related utilities.
@@ -34,12 +39,88 @@ public final class FileUtils {
      * @param filePath The file path
      * @return A list with the file lines.
      * @throws IOException if an I/O error occurs
+     * @see #forEachLine(Path, MappedLineReader.LineVisitor) for large files
      */
     public static List<String> readAllLines(String filePath) throws IOException {
         Path path = Paths.get(filePath);
         return Files.readAllLines(path);
     }
 
+    /**
+     * Visits the lines of the UTF-8 encoded file at the given path, using a {@link MappedLineReader}.
+     * <p>
+     * The lines are not copied into strings and are valid only during the visit.
+     *
+     * @param path    The file path
+     * @param visitor The line visitor
+     * @return {@code true} if all the lines were visited, {@code false} if the visitor stopped the iteration.
+     * @throws IOException if an I/O error occurs
+     */
+    public static boolean forEachLine(Path path, MappedLineReader.LineVisitor visitor) throws IOException {
+        try (MappedLineReader reader = MappedLineReader.open(path)) {
+            return reader.forEachLine(visitor);
+        }
+    }
+
+    /**
+     * Returns a stream of the lines of the UTF-8 encoded file at the given path, using a {@link MappedLineReader}.
+     * <p>
+     * The lines are views over the memory-mapped file and are not copied into strings unless
+     * {@link CharSequence#toString()} is called. The stream must be closed to close the file.
+     *
+     * @param path The file path
+     * @return A stream of the file lines.
+     * @throws IOException if an I/O error occurs
+     */
+    public static Stream<CharSequence> mappedLines(Path path) throws IOException {
+        return MappedLineReader.open(path).lines();
+    }
+
+    /**
+     * Returns a stream of the lines of the UTF-8 encoded file at the given path, which can be processed in parallel.
+     * <p>
+     * Unlike {@link Files#lines(Path)}, the file is split in byte ranges aligned to the line boundaries, so a parallel
+     * stream can scan a single large file on all the fork-join pool threads. The encounter order is preserved.
+     * The stream must be closed to close the file.
+     *
+     * @param path     The file path
+     * @param parallel {@code true} for a parallel stream, {@code false} for a sequential stream
+     * @return A stream of the file lines.
+     * @throws IOException if an I/O error occurs
+     * @see MappedLineReader#lines(Path, boolean)
+     */
+    public static Stream<CharSequence> lines(Path path, boolean parallel) throws IOException {
+        return MappedLineReader.lines(path, parallel);
+    }
+
+    /**
+     * Maps the specified region of the file at the specified path to memory for reading and writing, creating and
+     * extending the file if needed.
+     * <p>
+     * The region is mapped in consecutive buffers of at most {@code regionSize} bytes, so regions larger than 2 GiB can
+     * be mapped. The buffers remain valid after this method returns, until they are garbage collected.
+     *
+     * @param path       The file path
+     * @param position   The position in the file where the mapped region starts
+     * @param size       The size of the mapped region
+     * @param regionSize The maximum size of a mapped buffer
+     * @return The mapped buffers, in the file order.
+     * @throws IOException if an I/O error occurs
+     */
+    public static MappedByteBuffer[] map(Path path, long position, long size, int regionSize) throws IOException {
+        if (position < 0 || size < 0 || regionSize <= 0) {
+            throw new IllegalArgumentException("The position and size can't be negative and the region size must be positive.");
+        }
+        MappedByteBuffer[] buffers = new MappedByteBuffer[(int) ((size + regionSize - 1) / regionSize)];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < buffers.length; i++) {
+                long offset = (long) i * regionSize;
+                buffers[i] = channel.map(FileChannel.MapMode.READ_WRITE, position + offset, Math.min(regionSize, size - offset));
+            }
+        }
+        return buffers;
+    }
+
     /**
      * Ensures that the directory at the specified path exists.
      *
@@ -62,6 +143,8 @@ public final class FileUtils {
 
     /**
      * Deletes the file at the specified path if exists.
+     * <p>
+     * The failures are logged with a rate limit, see {@link Slf4jUtils#logRateLimited(org.slf4j.Logger, Level, String, Object)}.
      *
      * @param filePath The file path
      * @return {@code true} if the file was deleted, {@code false} otherwise.
@@ -72,10 +155,10 @@ public final class FileUtils {
                 logger.info("File {} deleted successfully.", filePath);
                 return true;
             } else {
-                logger.warn("File {} doesn't exists.", filePath);
+                Slf4jUtils.logRateLimited(logger, Level.WARN, "File {} doesn't exists.", filePath);
             }
         } catch (IOException e) {
-            logger.error("Error while deleting file {}", filePath, e);
+            Slf4jUtils.logRateLimited(logger, Level.ERROR, "Error while deleting file {}", filePath, e);
         }
         return false;
     }
@@ -4,10 +4,21 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Objects;
 
 /**
@@ -26,10 +37,37 @@ public final class IOUtils {
      */
     public static final int EOF = -1;
 
+    /**
+     * The thread-local pool of heap buffers used by the copy methods which don't receive a buffer.
+     * <p>
+     * Its {@link BufferPool#stats() statistics} can be used to size the buffers used by the application.
+     */
+    public static final BufferPool BUFFER_POOL = BufferPool.threadLocal(false, 4);
+
+    /**
+     * The name ({@value}) of the {@link MetricsRegistry#global() global} counter of the bytes copied by the copy methods.
+     */
+    public static final String COPY_BYTES_METRIC = "io.copy.bytes";
+
+    /**
+     * The name ({@value}) of the {@link MetricsRegistry#global() global} histogram of the copy durations, in nanos.
+     */
+    public static final String COPY_TIME_METRIC = "io.copy.time";
+
+    /**
+     * The maximum number of bytes transferred by a single {@link FileChannel#transferFrom} call.
+     */
+    private static final long TRANSFER_FROM_CHUNK_SIZE = 64L * 1024 * 1024;
+
+    private static final Counter COPY_BYTES = MetricsRegistry.global().counter(COPY_BYTES_METRIC);
+    private static final LatencyHistogram COPY_TIME = MetricsRegistry.global().histogram(COPY_TIME_METRIC);
+
     /**
      * Copies bytes a {@code InputStream} to an {@code OutputStream}.
      * <p>
      * This method buffers the input internally, using the default buffer size: {@link #DEFAULT_BUFFER_SIZE}.
+     * If both streams are plain {@link FileInputStream} and {@link FileOutputStream} instances, the copy is delegated
+     * to their file channels, see {@link #copy(ReadableByteChannel, WritableByteChannel)}.
      *
      * @param inputStream  The {@code InputStream} to read.
      * @param outputStream The {@code OutputStream} to write.
@@ -37,11 +75,18 @@ public final class IOUtils {
      * @throws IOException if an I/O error occurs.
      */
     public static long copy(InputStream inputStream, OutputStream outputStream) throws IOException {
+        // subclasses may override the read/write methods, so only the exact file stream types are safe to bypass
+        if (inputStream != null && inputStream.getClass() == FileInputStream.class
+                && outputStream != null && outputStream.getClass() == FileOutputStream.class) {
+            return copy(((FileInputStream) inputStream).getChannel(), ((FileOutputStream) outputStream).getChannel());
+        }
         return copy(inputStream, outputStream, DEFAULT_BUFFER_SIZE);
     }
 
     /**
      * Copies bytes from an {@code InputStream} to an {@code OutputStream} using an internal buffer of the given size.
+     * <p>
+     * The buffer is acquired from the {@link #BUFFER_POOL} and its size is rounded up to the next pool size class.
      *
      * @param inputStream  The {@code InputStream} to read.
      * @param outputStream The {@code OutputStream} to write to
@@ -50,7 +95,12 @@ public final class IOUtils {
      * @throws IOException if an I/O error occurs.
      */
     public static long copy(InputStream inputStream, OutputStream outputStream, int bufferSize) throws IOException {
-        return copy(inputStream, outputStream, new byte[bufferSize]);
+        ByteBuffer buffer = BUFFER_POOL.acquire(bufferSize);
+        try {
+            return copy(inputStream, outputStream, buffer.array());
+        } finally {
+            BUFFER_POOL.release(buffer);
+        }
     }
 
     /**
@@ -68,12 +118,202 @@ public final class IOUtils {
     public static long copy(InputStream inputStream, OutputStream outputStream, byte[] buffer) throws IOException {
         Objects.requireNonNull(inputStream, "inputStream");
         Objects.requireNonNull(outputStream, "outputStream");
+        long start = System.nanoTime();
         long count = 0;
         int n;
         while (EOF != (n = inputStream.read(buffer))) {
             outputStream.write(buffer, 0, n);
             count += n;
         }
+        return copied(count, start);
+    }
+
+    /**
+     * Copies the file at the source path to the target path, creating or truncating the target file.
+     * <p>
+     * Like {@link Files#copy(Path, Path, java.nio.file.CopyOption...)}, if the source and target are the same file,
+     * the copy completes without copying and the file is left unchanged.
+     *
+     * @param source The source file path
+     * @param target The target file path
+     * @return The number of bytes copied, 0 if the source and target are the same file.
+     * @throws IOException if an I/O error occurs.
+     * @see #copy(ReadableByteChannel, WritableByteChannel)
+     */
+    public static long copy(Path source, Path target) throws IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(target, "target");
+        // opening the target would truncate the source
+        if (Files.exists(target) && Files.isSameFile(source, target)) {
+            return 0;
+        }
+        try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return copy(sourceChannel, targetChannel);
+        }
+    }
+
+    /**
+     * Copies the file at the source path to a {@code WritableByteChannel}.
+     *
+     * @param source The source file path
+     * @param target The {@code WritableByteChannel} to write
+     * @return The number of bytes copied.
+     * @throws IOException if an I/O error occurs.
+     * @see #copy(ReadableByteChannel, WritableByteChannel)
+     */
+    public static long copy(Path source, WritableByteChannel target) throws IOException {
+        Objects.requireNonNull(source, "source");
+        try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ)) {
+            return copy(sourceChannel, target);
+        }
+    }
+
+    /**
+     * Copies bytes from a {@code ReadableByteChannel} to a {@code WritableByteChannel}.
+     * <p>
+     * If the source is a {@link FileChannel} with a known size, the bytes are copied using {@link FileChannel#transferTo(long, long, WritableByteChannel)}
+     * which allows the operating system to copy the bytes directly to a file or a socket channel (zero-copy).
+     * The copy starts from the current source position which is advanced with the number of bytes copied.
+     * If the target is a non-blocking channel which can't accept more bytes, the copy continues with a buffer.
+     * The special files without size, e.g. in {@code /proc}, and the pipes are copied with a buffer.
+     * <br>If the target is a {@link FileChannel} and the source is a blocking channel, e.g. a socket channel, the bytes
+     * are copied using {@link FileChannel#transferFrom(ReadableByteChannel, long, long)} from the current target position
+     * which is advanced with the number of bytes copied.
+     * <br>Otherwise, the bytes are copied using a buffer of size {@link #DEFAULT_BUFFER_SIZE} from the {@link #BUFFER_POOL}.
+     *
+     * @param source The {@code ReadableByteChannel} to read
+     * @param target The {@code WritableByteChannel} to write
+     * @return The number of bytes copied.
+     * @throws IOException  if an I/O error occurs.
+     * @throws EOFException if the source file is truncated during the copy.
+     */
+    public static long copy(ReadableByteChannel source, WritableByteChannel target) throws IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(target, "target");
+        // the special files, e.g. in /proc, have no size, their content is only known by reading them
+        if (source instanceof FileChannel fileChannel && fileChannel.size() > 0) {
+            return transferTo(fileChannel, target);
+        }
+        // the transfer from a non-blocking source stops when no bytes are available, so it can't detect the end of stream,
+        // the transfer from a file channel is bounded by its size, and the transfer to a position after the end of the
+        // file transfers no bytes
+        if (target instanceof FileChannel fileChannel && !isNonBlocking(source) && !(source instanceof FileChannel)
+                && fileChannel.position() <= fileChannel.size()) {
+            return transferFrom(source, fileChannel);
+        }
+        long start = System.nanoTime();
+        return copied(bufferedCopy(source, target), start);
+    }
+
+    /**
+     * Copies bytes from a {@code ReadableByteChannel} to a {@code WritableByteChannel} using the provided buffer.
+     *
+     * @param source The {@code ReadableByteChannel} to read
+     * @param target The {@code WritableByteChannel} to write
+     * @param buffer The buffer to use for the copy
+     * @return The number of bytes copied.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static long copy(ReadableByteChannel source, WritableByteChannel target, ByteBuffer buffer) throws IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(target, "target");
+        long start = System.nanoTime();
+        return copied(copyWithBuffer(source, target, buffer), start);
+    }
+
+    /**
+     * Transfers the remaining bytes of the file channel to the target channel starting from the current position.
+     * <p>
+     * When no bytes are transferred, the copy continues with a buffer until the end of the file, as the target may be
+     * a non-blocking channel which can't accept more bytes, or the file may be shorter than its reported size.
+     *
+     * @param source The source {@code FileChannel}
+     * @param target The {@code WritableByteChannel} to write
+     * @return The number of bytes transferred.
+     * @throws IOException  if an I/O error occurs.
+     * @throws EOFException if the source file is truncated during the transfer.
+     */
+    private static long transferTo(FileChannel source, WritableByteChannel target) throws IOException {
+        long startNanos = System.nanoTime();
+        long start = source.position();
+        long position = start;
+        long size = source.size();
+        while (position < size) {
+            long n = source.transferTo(position, size - position, target);
+            if (n > 0) {
+                position += n;
+            } else if (source.size() <= position) {
+                throw new EOFException("The file was truncated to " + source.size() + " bytes while copying " + size + " bytes.");
+            } else {
+                source.position(position);
+                return copied(position - start + bufferedCopy(source, target), startNanos);
+            }
+        }
+        source.position(position);
+        return copied(position - start, startNanos);
+    }
+
+    /**
+     * Transfers the bytes of the blocking source channel to the file channel starting from its current position.
+     *
+     * @param source The blocking {@code ReadableByteChannel} to read
+     * @param target The target {@code FileChannel}
+     * @return The number of bytes transferred.
+     * @throws IOException if an I/O error occurs.
+     */
+    private static long transferFrom(ReadableByteChannel source, FileChannel target) throws IOException {
+        long startNanos = System.nanoTime();
+        long start = target.position();
+        long position = start;
+        long n;
+        // a blocking source transfers no bytes only at the end of stream
+        while ((n = target.transferFrom(source, position, TRANSFER_FROM_CHUNK_SIZE)) > 0) {
+            position += n;
+        }
+        target.position(position);
+        return copied(position - start, startNanos);
+    }
+
+    private static long bufferedCopy(ReadableByteChannel source, WritableByteChannel target) throws IOException {
+        ByteBuffer buffer = BUFFER_POOL.acquire(DEFAULT_BUFFER_SIZE);
+        try {
+            return copyWithBuffer(source, target, buffer);
+        } finally {
+            BUFFER_POOL.release(buffer);
+        }
+    }
+
+    private static long copyWithBuffer(ReadableByteChannel source, WritableByteChannel target, ByteBuffer buffer) throws IOException {
+        long count = 0;
+        buffer.clear();
+        int n;
+        while (EOF != (n = source.read(buffer))) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            buffer.clear();
+            count += n;
+        }
+        return count;
+    }
+
+    private static boolean isNonBlocking(Object channel) {
+        return channel instanceof SelectableChannel selectableChannel && !selectableChannel.isBlocking();
+    }
+
+    /**
+     * Records the metrics of a completed copy.
+     *
+     * @param count      The number of bytes copied
+     * @param startNanos The {@link System#nanoTime()} value at the start of the copy
+     * @return The number of bytes copied.
+     */
+    private static long copied(long count, long startNanos) {
+        COPY_TIME.recordSince(startNanos);
+        COPY_BYTES.add(count);
         return count;
     }
 
@@ -0,0 +1,302 @@
+package io.github.amanzat.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Resizable list of {@code int} values backed by an {@code int[]}, without boxing.
+ * <p>
+ * This class is not thread-safe and its iterators are not fail-fast.
+ */
+public final class IntArrayList {
+
+    /**
+     * The default initial capacity.
+     */
+    public static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * The maximum array length supported by most JVMs.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int[] elements;
+    private int size;
+
+    /**
+     * Creates an empty list with the default initial capacity.
+     */
+    public IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty list with the specified initial capacity.
+     *
+     * @param capacity The initial capacity
+     */
+    public IntArrayList(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity can't be negative.");
+        }
+        this.elements = new int[capacity];
+    }
+
+    /**
+     * Creates a list with the specified values.
+     *
+     * @param values The values
+     * @return The list.
+     */
+    public static IntArrayList of(int... values) {
+        IntArrayList list = new IntArrayList(values.length);
+        list.addAll(values);
+        return list;
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return The number of values.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if the list has no values, {@code false} otherwise.
+     *
+     * @return {@code true} if the list has no values, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value at the specified index.
+     *
+     * @param index The index
+     * @return The value at the specified index.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int get(int index) {
+        Objects.checkIndex(index, size);
+        return elements[index];
+    }
+
+    /**
+     * Replaces the value at the specified index.
+     *
+     * @param index The index
+     * @param value The new value
+     * @return The previous value at the specified index.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int set(int index, int value) {
+        Objects.checkIndex(index, size);
+        int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    /**
+     * Appends the specified value.
+     *
+     * @param value The value
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Appends the specified values.
+     *
+     * @param values The values
+     */
+    public void addAll(int... values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, elements, size, values.length);
+        size += values.length;
+    }
+
+    /**
+     * Removes the value at the specified index, shifting the following values to the left.
+     *
+     * @param index The index
+     * @return The removed value.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int removeAt(int index) {
+        Objects.checkIndex(index, size);
+        int removed = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return removed;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified value.
+     *
+     * @param value The value
+     * @return The index of the first occurrence of the value, or -1 if the list doesn't contain it.
+     */
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if the list contains the specified value.
+     *
+     * @param value The value
+     * @return {@code true} if the list contains the value, {@code false} otherwise.
+     */
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * Removes all the values, keeping the capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Increases the capacity, if needed, to hold the specified number of values.
+     *
+     * @param capacity The minimum capacity
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > elements.length) {
+            grow(capacity);
+        }
+    }
+
+    /**
+     * Sorts the values in ascending order.
+     */
+    public void sort() {
+        Arrays.sort(elements, 0, size);
+    }
+
+    /**
+     * Performs the specified action for each value, in order.
+     *
+     * @param action The action
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(elements[i]);
+        }
+    }
+
+    /**
+     * Returns an iterator over the values, in order.
+     *
+     * @return An iterator over the values.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return elements[index++];
+            }
+        };
+    }
+
+    /**
+     * Returns a sequential stream of the values, in order.
+     *
+     * @return A stream of the values.
+     */
+    public IntStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    /**
+     * Returns an array with the values, in order.
+     *
+     * @return An array with the values.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * Returns an array with the values in the specified range.
+     *
+     * @param from The range start, inclusive
+     * @param to   The range end, exclusive
+     * @return An array with the values in the specified range.
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public int[] toArray(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Arrays.copyOfRange(elements, from, to);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof IntArrayList)) {
+            return false;
+        }
+        IntArrayList other = (IntArrayList) obj;
+        return Arrays.equals(elements, 0, size, other.elements, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        // the same as the hash code of a List<Integer> with the same values
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + elements[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(size * 6 + 2).append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(elements[i]);
+        }
+        return builder.append(']').toString();
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("The list can't hold more than " + MAX_CAPACITY + " values.");
+        }
+        int capacity = (int) Math.min(Math.max((long) elements.length + (elements.length >> 1), minCapacity), MAX_CAPACITY);
+        elements = Arrays.copyOf(elements, Math.max(capacity, DEFAULT_CAPACITY));
+    }
+}
@@ -0,0 +1,205 @@
+package io.github.amanzat.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative values, typically latencies in nanos, with a bounded relative error.
+ * <p>
+ * Like the HDR histograms, the values are counted in log-linear buckets: each power of two range is split in
+ * {@code 2^precisionBits} buckets of equal width, so the values are recorded with a relative error of at most
+ * {@code 2^-precisionBits} (about 3% with the default precision) over the whole {@code long} range. Recording a value
+ * is an index computation and an atomic increment, without locks or allocation, so it can be used on hot paths.
+ * <p>
+ * The {@link #snapshot() snapshots} copy the bucket counts and compute the percentiles.
+ *
+ * @see MetricsRegistry#histogram(String)
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The default number of precision bits ({@value}).
+     */
+    public static final int DEFAULT_PRECISION_BITS = 5;
+
+    private final int precisionBits;
+    private final int subBuckets;
+    private final AtomicLongArray counts;
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Creates a histogram with the {@link #DEFAULT_PRECISION_BITS default precision}.
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * Creates a histogram with the specified precision.
+     *
+     * @param precisionBits The number of precision bits, between 1 and 10, the memory usage being about
+     *                      {@code (64 - precisionBits) * 2^precisionBits * 8} bytes
+     */
+    public LatencyHistogram(int precisionBits) {
+        if (precisionBits < 1 || precisionBits > 10) {
+            throw new IllegalArgumentException("The precision bits must be between 1 and 10.");
+        }
+        this.precisionBits = precisionBits;
+        this.subBuckets = 1 << precisionBits;
+        this.counts = new AtomicLongArray((Long.SIZE - precisionBits) * subBuckets);
+    }
+
+    /**
+     * Records the specified value, the negative values being recorded as zero.
+     *
+     * @param value The value
+     */
+    public void record(long value) {
+        long recorded = Math.max(value, 0);
+        counts.incrementAndGet(indexOf(recorded));
+        sum.add(recorded);
+        if (recorded > max.get()) {
+            max.accumulateAndGet(recorded, Math::max);
+        }
+    }
+
+    /**
+     * Records the time elapsed since the specified {@link System#nanoTime()} value.
+     *
+     * @param startNanos The {@link System#nanoTime()} value at the start of the measured operation
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Resets the histogram. The concurrent updates may be lost.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.set(0);
+    }
+
+    /**
+     * Returns a snapshot of the histogram. The concurrent updates may or may not be included.
+     *
+     * @return The snapshot of the histogram.
+     */
+    public Snapshot snapshot() {
+        long[] snapshot = new long[counts.length()];
+        long count = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        return new Snapshot(snapshot, count, sum.sum(), max.get());
+    }
+
+    /**
+     * Returns the bucket index of the value.
+     *
+     * @param value The non-negative value
+     * @return The bucket index.
+     */
+    int indexOf(long value) {
+        if (value < subBuckets) {
+            return (int) value;
+        }
+        // the values of [2^e, 2^(e+1)) are divided by 2^shift, giving the sub-bucket in [subBuckets, 2 * subBuckets)
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - precisionBits;
+        return shift * subBuckets + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the highest value of the bucket.
+     *
+     * @param index The bucket index
+     * @return The highest value counted in the bucket.
+     */
+    long highestValueOf(int index) {
+        if (index < subBuckets) {
+            return index;
+        }
+        int shift = index / subBuckets - 1;
+        long subBucket = index - (long) shift * subBuckets;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * A snapshot of a {@link LatencyHistogram}.
+     */
+    public final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return The number of recorded values.
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Returns the maximum recorded value.
+         *
+         * @return The maximum recorded value, 0 if no value was recorded.
+         */
+        public long max() {
+            return max;
+        }
+
+        /**
+         * Returns the mean of the recorded values.
+         *
+         * @return The mean of the recorded values, 0 if no value was recorded.
+         */
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Returns the value at the specified percentile, with the precision of the histogram: at least {@code percentile}
+         * percent of the recorded values are less than or equal to the returned value.
+         *
+         * @param percentile The percentile, between 0 and 100
+         * @return The value at the percentile, 0 if no value was recorded.
+         */
+        public long percentile(double percentile) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long cumulated = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulated += counts[i];
+                if (cumulated >= rank) {
+                    return Math.min(highestValueOf(i), max);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count + ", mean=" + Math.round(mean()) + ", p50=" + percentile(50) + ", p99=" + percentile(99)
+                    + ", p999=" + percentile(99.9) + ", max=" + max;
+        }
+    }
+}
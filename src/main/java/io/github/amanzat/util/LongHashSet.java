@@ -0,0 +1,376 @@
+package io.github.amanzat.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Set of {@code long} values backed by an open addressing hash table, without boxing and per-element objects.
+ * <p>
+ * The values are stored in a single {@code long[]} table with linear probing, the free slots being marked with 0,
+ * so the value 0 is tracked separately. Removals shift the following entries back instead of leaving tombstones.
+ * <p>
+ * This class is not thread-safe and its iterators are not fail-fast.
+ *
+ * @see LongLongHashMap
+ */
+public final class LongHashSet {
+
+    /**
+     * The default expected number of values.
+     */
+    public static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    /**
+     * The maximum ratio of used slots in the table.
+     */
+    static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The maximum table capacity.
+     */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private int mask;
+    private int shift;
+    private int resizeThreshold;
+    /**
+     * The number of values in the table, excluding 0.
+     */
+    private int tableSize;
+    private boolean containsZero;
+
+    /**
+     * Creates an empty set with the default expected size.
+     */
+    public LongHashSet() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty set which can hold the specified number of values without being resized.
+     *
+     * @param expectedSize The expected number of values
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return The number of values.
+     */
+    public int size() {
+        return containsZero ? tableSize + 1 : tableSize;
+    }
+
+    /**
+     * Returns {@code true} if the set has no values, {@code false} otherwise.
+     *
+     * @return {@code true} if the set has no values, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Checks if the set contains the specified value.
+     *
+     * @param value The value
+     * @return {@code true} if the set contains the value, {@code false} otherwise.
+     */
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        for (int index = slot(value, shift); ; index = (index + 1) & mask) {
+            long key = keys[index];
+            if (key == value) {
+                return true;
+            }
+            if (key == 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Adds the specified value.
+     *
+     * @param value The value
+     * @return {@code true} if the value was added, {@code false} if the set already contained it.
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            boolean added = !containsZero;
+            containsZero = true;
+            return added;
+        }
+        int index = slot(value, shift);
+        for (long key; (key = keys[index]) != 0; index = (index + 1) & mask) {
+            if (key == value) {
+                return false;
+            }
+        }
+        keys[index] = value;
+        if (++tableSize > resizeThreshold) {
+            resize(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Adds the specified values.
+     *
+     * @param values The values
+     * @return {@code true} if the set changed, {@code false} otherwise.
+     */
+    public boolean addAll(long... values) {
+        boolean changed = false;
+        for (long value : values) {
+            changed |= add(value);
+        }
+        return changed;
+    }
+
+    /**
+     * Removes the specified value.
+     *
+     * @param value The value
+     * @return {@code true} if the value was removed, {@code false} if the set didn't contain it.
+     */
+    public boolean remove(long value) {
+        if (value == 0) {
+            boolean removed = containsZero;
+            containsZero = false;
+            return removed;
+        }
+        for (int index = slot(value, shift); ; index = (index + 1) & mask) {
+            long key = keys[index];
+            if (key == 0) {
+                return false;
+            }
+            if (key == value) {
+                deleteSlot(index);
+                tableSize--;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes all the values, keeping the table capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        tableSize = 0;
+        containsZero = false;
+    }
+
+    /**
+     * Performs the specified action for each value.
+     *
+     * @param action The action
+     */
+    public void forEach(LongConsumer action) {
+        if (containsZero) {
+            action.accept(0);
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator over the values, in no particular order.
+     *
+     * @return An iterator over the values.
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+
+            private boolean zeroPending = containsZero;
+            private int index = nextSlot(keys, 0);
+
+            @Override
+            public boolean hasNext() {
+                return zeroPending || index < keys.length;
+            }
+
+            @Override
+            public long nextLong() {
+                if (zeroPending) {
+                    zeroPending = false;
+                    return 0;
+                }
+                if (index >= keys.length) {
+                    throw new NoSuchElementException();
+                }
+                long value = keys[index];
+                index = nextSlot(keys, index + 1);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Returns a sequential stream of the values.
+     *
+     * @return A stream of the values.
+     */
+    public LongStream stream() {
+        return StreamSupport.longStream(Spliterators.spliterator(iterator(), size(),
+                Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns an array with the values, in no particular order.
+     *
+     * @return An array with the values.
+     */
+    public long[] toArray() {
+        long[] result = new long[size()];
+        int count = containsZero ? 1 : 0;
+        for (long key : keys) {
+            if (key != 0) {
+                result[count++] = key;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof LongHashSet)) {
+            return false;
+        }
+        LongHashSet other = (LongHashSet) obj;
+        if (size() != other.size() || containsZero != other.containsZero) {
+            return false;
+        }
+        for (long key : keys) {
+            if (key != 0 && !other.contains(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // the same as the hash code of a Set<Long> with the same values
+        int hash = 0;
+        for (long key : keys) {
+            hash += Long.hashCode(key);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(size() * 8 + 2).append('[');
+        forEach(value -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(value);
+        });
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Returns the home slot of the specified key, using the multiplicative (Fibonacci) hashing.
+     *
+     * @param key   The key
+     * @param shift The number of bits to drop from the product, i.e. 64 minus the number of bits of the table size
+     * @return The home slot of the key.
+     */
+    static int slot(long key, int shift) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    /**
+     * Returns the table capacity for the specified number of entries.
+     *
+     * @param expectedSize The expected number of entries
+     * @return A power of two capacity.
+     */
+    static int capacityFor(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("The expected size can't be negative.");
+        }
+        long minCapacity = (long) Math.ceil(Math.max(expectedSize, 2) / (double) LOAD_FACTOR) + 1;
+        if (minCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("The expected size is too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) minCapacity - 1) << 1;
+    }
+
+    /**
+     * Returns the index of the first used slot starting with the specified index.
+     *
+     * @param keys  The table keys
+     * @param index The start index
+     * @return The index of the first used slot, or the table length if there is none.
+     */
+    static int nextSlot(long[] keys, int index) {
+        while (index < keys.length && keys[index] == 0) {
+            index++;
+        }
+        return index;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        shift = Long.numberOfLeadingZeros(mask);
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void resize(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("The set can't hold more than " + resizeThreshold + " values.");
+        }
+        long[] oldKeys = keys;
+        allocate(capacity);
+        for (long key : oldKeys) {
+            if (key != 0) {
+                int index = slot(key, shift);
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+            }
+        }
+    }
+
+    /**
+     * Deletes the entry at the specified slot, moving back the following entries of the same probe sequence.
+     *
+     * @param index The slot index
+     */
+    private void deleteSlot(int index) {
+        int free = index;
+        for (int next = (free + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = slot(keys[next], shift);
+            // move the entry if the free slot is between its home slot and its current slot
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                free = next;
+            }
+        }
+        keys[free] = 0;
+    }
+}
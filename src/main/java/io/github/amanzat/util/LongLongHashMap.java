@@ -0,0 +1,376 @@
+package io.github.amanzat.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Map of {@code long} keys to {@code long} values backed by an open addressing hash table, without boxing and
+ * per-entry objects.
+ * <p>
+ * The keys and values are stored in two parallel {@code long[]} tables with linear probing, the free slots being
+ * marked with the key 0, so the key 0 is tracked separately. The absence of a value is reported with the
+ * {@link #getNoEntryValue() no entry value} chosen when the map is created.
+ * <p>
+ * This class is not thread-safe and its iterators are not fail-fast.
+ *
+ * @see LongHashSet
+ */
+public final class LongLongHashMap {
+
+    private final long noEntryValue;
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int shift;
+    private int resizeThreshold;
+    /**
+     * The number of entries in the table, excluding the key 0.
+     */
+    private int tableSize;
+    private boolean containsZeroKey;
+    private long zeroKeyValue;
+
+    /**
+     * Creates an empty map with the default expected size, returning 0 for the missing keys.
+     */
+    public LongLongHashMap() {
+        this(LongHashSet.DEFAULT_EXPECTED_SIZE, 0);
+    }
+
+    /**
+     * Creates an empty map which can hold the specified number of entries without being resized.
+     *
+     * @param expectedSize The expected number of entries
+     * @param noEntryValue The value returned for the missing keys
+     */
+    public LongLongHashMap(int expectedSize, long noEntryValue) {
+        this.noEntryValue = noEntryValue;
+        allocate(LongHashSet.capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the value returned for the missing keys.
+     *
+     * @return The value returned for the missing keys.
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return containsZeroKey ? tableSize + 1 : tableSize;
+    }
+
+    /**
+     * Returns {@code true} if the map has no entries, {@code false} otherwise.
+     *
+     * @return {@code true} if the map has no entries, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Checks if the map contains the specified key.
+     *
+     * @param key The key
+     * @return {@code true} if the map contains the key, {@code false} otherwise.
+     */
+    public boolean containsKey(long key) {
+        return key == 0 ? containsZeroKey : find(key) >= 0;
+    }
+
+    /**
+     * Returns the value of the specified key.
+     *
+     * @param key The key
+     * @return The value of the key, or the no entry value if the map doesn't contain the key.
+     */
+    public long get(long key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+    /**
+     * Returns the value of the specified key.
+     *
+     * @param key          The key
+     * @param defaultValue The value returned if the map doesn't contain the key
+     * @return The value of the key, or the default value if the map doesn't contain the key.
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == 0) {
+            return containsZeroKey ? zeroKeyValue : defaultValue;
+        }
+        int index = find(key);
+        return index >= 0 ? values[index] : defaultValue;
+    }
+
+    /**
+     * Associates the specified value with the specified key.
+     *
+     * @param key   The key
+     * @param value The value
+     * @return The previous value of the key, or the no entry value if the map didn't contain the key.
+     */
+    public long put(long key, long value) {
+        if (key == 0) {
+            long previous = containsZeroKey ? zeroKeyValue : noEntryValue;
+            containsZeroKey = true;
+            zeroKeyValue = value;
+            return previous;
+        }
+        int index = LongHashSet.slot(key, shift);
+        for (long current; (current = keys[index]) != 0; index = (index + 1) & mask) {
+            if (current == key) {
+                long previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+        }
+        insert(index, key, value);
+        return noEntryValue;
+    }
+
+    /**
+     * Adds the specified delta to the value of the specified key, a missing key being considered to have the value 0.
+     *
+     * @param key   The key
+     * @param delta The delta
+     * @return The new value of the key.
+     */
+    public long addTo(long key, long delta) {
+        if (key == 0) {
+            zeroKeyValue = containsZeroKey ? zeroKeyValue + delta : delta;
+            containsZeroKey = true;
+            return zeroKeyValue;
+        }
+        int index = LongHashSet.slot(key, shift);
+        for (long current; (current = keys[index]) != 0; index = (index + 1) & mask) {
+            if (current == key) {
+                return values[index] += delta;
+            }
+        }
+        insert(index, key, delta);
+        return delta;
+    }
+
+    /**
+     * Removes the specified key.
+     *
+     * @param key The key
+     * @return The value of the removed key, or the no entry value if the map didn't contain the key.
+     */
+    public long remove(long key) {
+        if (key == 0) {
+            long previous = containsZeroKey ? zeroKeyValue : noEntryValue;
+            containsZeroKey = false;
+            return previous;
+        }
+        int index = find(key);
+        if (index < 0) {
+            return noEntryValue;
+        }
+        long previous = values[index];
+        deleteSlot(index);
+        tableSize--;
+        return previous;
+    }
+
+    /**
+     * Removes all the entries, keeping the table capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        tableSize = 0;
+        containsZeroKey = false;
+    }
+
+    /**
+     * Performs the specified action for each entry.
+     *
+     * @param action The action
+     */
+    public void forEach(EntryConsumer action) {
+        if (containsZeroKey) {
+            action.accept(0, zeroKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator over the keys, in no particular order.
+     *
+     * @return An iterator over the keys.
+     */
+    public PrimitiveIterator.OfLong keyIterator() {
+        return new PrimitiveIterator.OfLong() {
+
+            private boolean zeroPending = containsZeroKey;
+            private int index = LongHashSet.nextSlot(keys, 0);
+
+            @Override
+            public boolean hasNext() {
+                return zeroPending || index < keys.length;
+            }
+
+            @Override
+            public long nextLong() {
+                if (zeroPending) {
+                    zeroPending = false;
+                    return 0;
+                }
+                if (index >= keys.length) {
+                    throw new NoSuchElementException();
+                }
+                long key = keys[index];
+                index = LongHashSet.nextSlot(keys, index + 1);
+                return key;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof LongLongHashMap)) {
+            return false;
+        }
+        LongLongHashMap other = (LongLongHashMap) obj;
+        if (size() != other.size() || containsZeroKey != other.containsZeroKey
+                || containsZeroKey && zeroKeyValue != other.zeroKeyValue) {
+            return false;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                int index = other.find(keys[i]);
+                if (index < 0 || other.values[index] != values[i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // the same as the hash code of a Map<Long, Long> with the same entries
+        int hash = containsZeroKey ? Long.hashCode(zeroKeyValue) : 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                hash += Long.hashCode(keys[i]) ^ Long.hashCode(values[i]);
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(size() * 16 + 2).append('{');
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Returns the slot of the specified non-zero key.
+     *
+     * @param key The key
+     * @return The slot of the key, or -1 if the table doesn't contain it.
+     */
+    private int find(long key) {
+        for (int index = LongHashSet.slot(key, shift); ; index = (index + 1) & mask) {
+            long current = keys[index];
+            if (current == key) {
+                return index;
+            }
+            if (current == 0) {
+                return -1;
+            }
+        }
+    }
+
+    private void insert(int index, long key, long value) {
+        keys[index] = key;
+        values[index] = value;
+        if (++tableSize > resizeThreshold) {
+            resize(keys.length << 1);
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        shift = Long.numberOfLeadingZeros(mask);
+        resizeThreshold = (int) (capacity * LongHashSet.LOAD_FACTOR);
+    }
+
+    private void resize(int capacity) {
+        if (capacity <= 0 || capacity > LongHashSet.MAX_CAPACITY) {
+            throw new IllegalStateException("The map can't hold more than " + resizeThreshold + " entries.");
+        }
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int index = LongHashSet.slot(oldKeys[i], shift);
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Deletes the entry at the specified slot, moving back the following entries of the same probe sequence.
+     *
+     * @param index The slot index
+     */
+    private void deleteSlot(int index) {
+        int free = index;
+        for (int next = (free + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = LongHashSet.slot(keys[next], shift);
+            // move the entry if the free slot is between its home slot and its current slot
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+        keys[free] = 0;
+    }
+
+    /**
+     * Consumer of the map entries.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        /**
+         * Performs the action on the specified entry.
+         *
+         * @param key   The key
+         * @param value The value
+         */
+        void accept(long key, long value);
+    }
+}
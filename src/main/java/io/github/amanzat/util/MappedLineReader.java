@@ -0,0 +1,537 @@
+package io.github.amanzat.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the lines of an UTF-8 (or ASCII) encoded file through memory-mapped windows of the file.
+ * <p>
+ * The lines are exposed as {@link Line} views over the mapped bytes, so no {@link String} is created unless
+ * {@link Line#toString()} is called. A line is terminated by {@code \n}, {@code \r} or {@code \r\n}, the same as
+ * {@link java.io.BufferedReader#readLine()}, and the terminators are not part of the line.
+ * <p>
+ * The windows are moved forward as the file is read. Each line is contained in a single window, which is remapped
+ * starting from the line beginning when a line crosses the window end, so the multibyte UTF-8 sequences are never split.
+ * Lines longer than the window size are supported by mapping larger windows.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @see FileUtils#forEachLine(Path, LineVisitor)
+ * @see FileUtils#mappedLines(Path)
+ */
+public final class MappedLineReader implements Closeable {
+
+    /**
+     * The default size ({@value}) of the mapped windows.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The default minimum size ({@value}) of a byte range which can be split for parallel processing.
+     */
+    static final long DEFAULT_MIN_SPLIT_SIZE = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long end;
+    private final int windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    /**
+     * Creates a reader for the byte range {@code [start, end)} of the file channel.
+     * <p>
+     * The start is expected to be the beginning of a line and the end the end of the file or the position
+     * right after a line terminator.
+     *
+     * @param channel    The file channel
+     * @param start      The start position (inclusive)
+     * @param end        The end position (exclusive)
+     * @param windowSize The size of the mapped windows
+     */
+    MappedLineReader(FileChannel channel, long start, long end, int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("The window size must be positive.");
+        }
+        this.channel = channel;
+        this.position = start;
+        this.end = end;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Opens a reader for the file at the specified path using the {@link #DEFAULT_WINDOW_SIZE}.
+     *
+     * @param path The file path
+     * @return A new reader which must be closed after use.
+     * @throws IOException if an I/O error occurs
+     */
+    public static MappedLineReader open(Path path) throws IOException {
+        return open(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Opens a reader for the file at the specified path.
+     *
+     * @param path       The file path
+     * @param windowSize The size of the mapped windows
+     * @return A new reader which must be closed after use.
+     * @throws IOException if an I/O error occurs
+     */
+    public static MappedLineReader open(Path path, int windowSize) throws IOException {
+        Objects.requireNonNull(path, "path");
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedLineReader(channel, 0, channel.size(), windowSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a stream of the lines of the file at the specified path, which can be processed in parallel.
+     * <p>
+     * The stream {@link Spliterator} splits the file in byte ranges aligned to the line boundaries, each range being
+     * read through its own {@link MappedLineReader}. Closing the stream closes the file.
+     *
+     * @param path     The file path
+     * @param parallel {@code true} for a parallel stream, {@code false} for a sequential stream
+     * @return A stream of the file lines.
+     * @throws IOException if an I/O error occurs
+     */
+    public static Stream<CharSequence> lines(Path path, boolean parallel) throws IOException {
+        return lines(path, parallel, DEFAULT_MIN_SPLIT_SIZE);
+    }
+
+    static Stream<CharSequence> lines(Path path, boolean parallel, long minSplitSize) throws IOException {
+        Objects.requireNonNull(path, "path");
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            RangeSpliterator spliterator = new RangeSpliterator(channel, 0, channel.size(), minSplitSize);
+            return StreamSupport.stream(spliterator, parallel).onClose(() -> {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next line into the specified line view.
+     *
+     * @param line The line view to update
+     * @return {@code true} if a line was read, {@code false} if the end was reached.
+     * @throws IOException if an I/O error occurs
+     */
+    public boolean readLine(Line line) throws IOException {
+        if (position >= end) {
+            return false;
+        }
+
+        while (true) {
+            if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+                map(position, windowSize);
+            }
+            int from = (int) (position - windowStart);
+            int limit = window.limit();
+            boolean ascii = true;
+            for (int i = from; i < limit; i++) {
+                byte b = window.get(i);
+                if (b == '\n' || b == '\r') {
+                    int next = i + 1;
+                    if (b == '\r') {
+                        if (next < limit) {
+                            if (window.get(next) == '\n') {
+                                next++;
+                            }
+                        } else if (windowStart + limit < end) {
+                            // can't check for '\r\n' at the end of the window
+                            break;
+                        }
+                    }
+                    line.reset(window, from, i - from, ascii);
+                    position = windowStart + next;
+                    return true;
+                }
+                ascii &= b >= 0;
+            }
+
+            if (windowStart + limit >= end) {
+                // the last line, without a terminator
+                line.reset(window, from, limit - from, ascii);
+                position = end;
+                return true;
+            }
+            // the line crosses the window end
+            if (windowStart == position) {
+                if (window.limit() == Integer.MAX_VALUE) {
+                    throw new IOException("Line too long at position " + position);
+                }
+                map(position, (int) Math.min(Integer.MAX_VALUE, 2L * window.limit()));
+            } else {
+                map(position, windowSize);
+            }
+        }
+    }
+
+    /**
+     * Visits the remaining lines until the end is reached or the visitor stops the iteration.
+     * <p>
+     * The same {@link Line} instance is passed for all the lines and is valid only during the visit.
+     *
+     * @param visitor The line visitor
+     * @return {@code true} if all the lines were visited, {@code false} if the visitor stopped the iteration.
+     * @throws IOException if an I/O error occurs
+     */
+    public boolean forEachLine(LineVisitor visitor) throws IOException {
+        Objects.requireNonNull(visitor, "visitor");
+        Line line = new Line();
+        while (readLine(line)) {
+            if (!visitor.visit(line)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a sequential stream of the remaining lines.
+     * <p>
+     * Each line is a distinct {@link Line} view over the mapped bytes, which remains valid after the stream advances.
+     * Closing the stream closes this reader.
+     *
+     * @return A stream of the remaining lines.
+     */
+    public Stream<CharSequence> lines() {
+        Spliterator<CharSequence> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+
+            @Override
+            public boolean tryAdvance(Consumer<? super CharSequence> action) {
+                Line line = new Line();
+                try {
+                    if (readLine(line)) {
+                        action.accept(line);
+                        return true;
+                    }
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(this::closeUnchecked);
+    }
+
+    /**
+     * Closes the underlying file channel.
+     * <p>
+     * The mapped windows are released when they are no longer referenced, including by the {@link Line lines} read.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private void closeUnchecked() {
+        try {
+            close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void map(long start, int size) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size, end - start));
+    }
+
+    /**
+     * Spliterator over the lines of a byte range of a file, splittable at line boundaries.
+     */
+    static final class RangeSpliterator implements Spliterator<CharSequence> {
+
+        /**
+         * The number of bytes read at once while searching for a line boundary.
+         */
+        private static final int SCAN_SIZE = 512;
+
+        private final FileChannel channel;
+        private final long minSplitSize;
+        private long start;
+        private final long end;
+        private MappedLineReader reader;
+
+        RangeSpliterator(FileChannel channel, long start, long end, long minSplitSize) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.minSplitSize = Math.max(1, minSplitSize);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super CharSequence> action) {
+            Line line = new Line();
+            try {
+                if (reader().readLine(line)) {
+                    action.accept(line);
+                    return true;
+                }
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super CharSequence> action) {
+            MappedLineReader lineReader = reader();
+            try {
+                Line line = new Line();
+                while (lineReader.readLine(line)) {
+                    action.accept(line);
+                    line = new Line();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Spliterator<CharSequence> trySplit() {
+            if (reader != null || end - start < 2 * minSplitSize) {
+                return null;
+            }
+            long split;
+            try {
+                split = nextLineStart(start + (end - start) / 2);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (split >= end) {
+                return null;
+            }
+            RangeSpliterator prefix = new RangeSpliterator(channel, start, split, minSplitSize);
+            start = split;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            // the number of bytes is an upper bound of the number of lines
+            return end - start;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL;
+        }
+
+        private MappedLineReader reader() {
+            if (reader == null) {
+                reader = new MappedLineReader(channel, start, end, (int) Math.min(DEFAULT_WINDOW_SIZE, Math.max(1, end - start)));
+            }
+            return reader;
+        }
+
+        /**
+         * Returns the start position of the first line beginning after the specified position, or the range end.
+         *
+         * @param position The position to search from
+         * @return The start position of the next line or the range end.
+         * @throws IOException if an I/O error occurs
+         */
+        private long nextLineStart(long position) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(SCAN_SIZE);
+            boolean carriageReturn = false;
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(SCAN_SIZE, end - position));
+                int n = channel.read(buffer, position);
+                if (n <= 0) {
+                    return end;
+                }
+                for (int i = 0; i < n; i++) {
+                    byte b = buffer.get(i);
+                    if (carriageReturn) {
+                        // a line terminated by '\r' or '\r\n'
+                        return b == '\n' ? position + i + 1 : position + i;
+                    }
+                    if (b == '\n') {
+                        return position + i + 1;
+                    }
+                    carriageReturn = b == '\r';
+                }
+                position += n;
+            }
+            return end;
+        }
+    }
+
+    /**
+     * Visitor of the file lines.
+     */
+    @FunctionalInterface
+    public interface LineVisitor {
+
+        /**
+         * Visits a line.
+         *
+         * @param line The line, valid only during this call
+         * @return {@code true} to continue with the next line, {@code false} to stop.
+         */
+        boolean visit(CharSequence line);
+    }
+
+    /**
+     * A {@link CharSequence} view over the UTF-8 encoded bytes of a line.
+     * <p>
+     * The ASCII lines are accessed directly, while the other lines are decoded on the first character access.
+     * Malformed UTF-8 sequences are replaced with the {@code U+FFFD} replacement character.
+     */
+    public static final class Line implements CharSequence {
+
+        private ByteBuffer buffer;
+        private int offset;
+        private int byteLength;
+        private boolean ascii;
+        private CharBuffer chars;
+        private boolean decoded;
+
+        /**
+         * Creates an empty line view to be used with {@link #readLine(Line)}.
+         */
+        public Line() {
+            reset(ByteBuffer.allocate(0), 0, 0, true);
+        }
+
+        private void reset(ByteBuffer buffer, int offset, int byteLength, boolean ascii) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.byteLength = byteLength;
+            this.ascii = ascii;
+            this.decoded = false;
+        }
+
+        /**
+         * Returns the number of bytes of the line.
+         *
+         * @return The number of bytes of the line.
+         */
+        public int byteLength() {
+            return byteLength;
+        }
+
+        /**
+         * Returns {@code true} if the line contains only ASCII characters, {@code false} otherwise.
+         *
+         * @return {@code true} if the line contains only ASCII characters, {@code false} otherwise.
+         */
+        public boolean isAscii() {
+            return ascii;
+        }
+
+        /**
+         * Returns the byte at the specified index of the line.
+         *
+         * @param index The byte index
+         * @return The byte at the specified index.
+         */
+        public byte byteAt(int index) {
+            Objects.checkIndex(index, byteLength);
+            return buffer.get(offset + index);
+        }
+
+        /**
+         * Copies the bytes of the line into the destination array.
+         *
+         * @param destination The destination array, at least {@link #byteLength()} long
+         * @param destOffset  The offset in the destination array
+         */
+        public void copyBytes(byte[] destination, int destOffset) {
+            buffer.get(offset, destination, destOffset, byteLength);
+        }
+
+        @Override
+        public int length() {
+            return ascii ? byteLength : decode().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (ascii) {
+                return (char) byteAt(index);
+            }
+            return decode().charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (!ascii) {
+                return decode().subSequence(start, end);
+            }
+            Objects.checkFromToIndex(start, end, byteLength);
+            Line line = new Line();
+            line.reset(buffer, offset + start, end - start, true);
+            return line;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return byteLength == 0;
+        }
+
+        @Override
+        public String toString() {
+            if (!ascii) {
+                return decode().toString();
+            }
+            byte[] bytes = new byte[byteLength];
+            copyBytes(bytes, 0);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+
+        private CharBuffer decode() {
+            if (!decoded) {
+                // the number of chars is at most the number of bytes
+                if (chars == null || chars.capacity() < byteLength) {
+                    chars = CharBuffer.allocate(byteLength);
+                }
+                chars.clear();
+                CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+                decoder.decode(buffer.slice(offset, byteLength), chars, true);
+                decoder.flush(chars);
+                chars.flip();
+                decoded = true;
+            }
+            return chars;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.amanzat.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registry of named {@link Counter counters} and {@link LatencyHistogram histograms}.
+ * <p>
+ * The metrics are meant to be looked up once and kept in (static) fields, the updates then being lock-free and
+ * allocation-free. The {@link #global() global} registry holds the metrics of this library:
+ * <ul>
+ *     <li>{@value IOUtils#COPY_BYTES_METRIC} - the number of bytes copied by the {@link IOUtils} copy methods</li>
+ *     <li>{@value IOUtils#COPY_TIME_METRIC} - the duration in nanos of the {@link IOUtils} copy methods</li>
+ *     <li>{@value ThreadUtils#WAIT_TIME_METRIC} - the time in nanos spent waiting by the {@link ThreadUtils} methods</li>
+ * </ul>
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the global registry.
+     *
+     * @return The global registry.
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Returns the counter with the specified name, creating it if needed.
+     *
+     * @param name The counter name
+     * @return The counter.
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Returns the histogram with the specified name, creating it with the default precision if needed.
+     *
+     * @param name The histogram name
+     * @return The histogram.
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Returns a snapshot of all the metrics. The concurrent updates may or may not be included.
+     *
+     * @return The snapshot of the metrics.
+     */
+    public Snapshot snapshot() {
+        SortedMap<String, Long> counterSnapshots = new TreeMap<>();
+        counters.forEach((name, counter) -> counterSnapshots.put(name, counter.sum()));
+        SortedMap<String, LatencyHistogram.Snapshot> histogramSnapshots = new TreeMap<>();
+        histograms.forEach((name, histogram) -> histogramSnapshots.put(name, histogram.snapshot()));
+        return new Snapshot(Collections.unmodifiableSortedMap(counterSnapshots),
+                Collections.unmodifiableSortedMap(histogramSnapshots));
+    }
+
+    /**
+     * A snapshot of the metrics of a registry.
+     *
+     * @param counters   The counter sums, by name
+     * @param histograms The histogram snapshots, by name
+     */
+    public record Snapshot(SortedMap<String, Long> counters, SortedMap<String, LatencyHistogram.Snapshot> histograms) {
+    }
+}
@@ -3,8 +3,11 @@ package io.github.amanzat.util;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.event.Level;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 
 /**
  * Miscellaneous {@link Number} utility methods and constants.
@@ -13,22 +16,395 @@ import java.math.BigDecimal;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class NumberUtils {
 
+    /**
+     * The powers of ten which fit in a {@code long}.
+     */
+    private static final long[] LONG_POWERS_OF_TEN = new long[19];
+
+    /**
+     * The powers of ten which are exactly represented as a {@code double}.
+     */
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[23];
+
+    /**
+     * The maximum integer exactly represented as a {@code double}.
+     */
+    private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
+    static {
+        LONG_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < LONG_POWERS_OF_TEN.length; i++) {
+            LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10;
+        }
+        DOUBLE_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < DOUBLE_POWERS_OF_TEN.length; i++) {
+            DOUBLE_POWERS_OF_TEN[i] = DOUBLE_POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
     /**
      * Safely parses the specified string value to a {@link BigDecimal} ignoring nulls and blank strings.
+     * <p>
+     * The value is validated without relying on exceptions and the values with up to 18 digits are created
+     * from their unscaled value and scale.
      *
      * @param strValue The string value to parse
      * @return The corresponding {@link BigDecimal} if the string value is valid, {@code null} otherwise.
+     * @see Decimal#parse(CharSequence)
      */
     public static BigDecimal safeParseDecimal(String strValue) {
         if (StringUtils.isBlank(strValue)) {
             return null;
         }
 
+        DecimalParser parser = new DecimalParser(strValue, 0, strValue.length());
+        if (parser.parse() && !parser.overflow) {
+            return BigDecimal.valueOf(parser.unscaled, parser.scale);
+        }
+        if (!parser.valid && !hasNonAsciiChar(strValue)) {
+            Slf4jUtils.logRateLimited(logger, Level.WARN, "Can't parse BigDecimal from string value {}", strValue);
+            return null;
+        }
+
+        // too many digits, or non-ASCII digits which are accepted by BigDecimal
         try {
             return new BigDecimal(strValue);
         } catch (NumberFormatException e) {
-            logger.warn("Can't parse BigDecimal from string value " + strValue);
+            Slf4jUtils.logRateLimited(logger, Level.WARN, "Can't parse BigDecimal from string value {}", strValue);
             return null;
         }
     }
+
+    /**
+     * Checks if the specified value is a valid decimal number, as accepted by {@link BigDecimal#BigDecimal(String)}
+     * with ASCII digits, e.g. {@code -12.5}, {@code .5} or {@code 1.2E+3}.
+     *
+     * @param value The value
+     * @return {@code true} if the value is a valid decimal number, {@code false} otherwise.
+     */
+    public static boolean isDecimal(CharSequence value) {
+        return value != null && new DecimalParser(value, 0, value.length()).parse();
+    }
+
+    /**
+     * Parses the specified value to a {@code long} without throwing exceptions.
+     * <p>
+     * The value must be an integer with an optional sign and ASCII digits, as accepted by {@link Long#parseLong(String)}.
+     *
+     * @param value        The value
+     * @param defaultValue The value returned if the value is not valid or out of range
+     * @return The parsed value or the default value.
+     */
+    public static long parseLong(CharSequence value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        return new DecimalParser(value, 0, value.length()).parseLong(defaultValue);
+    }
+
+    /**
+     * Parses the specified range of ASCII bytes to a {@code long} without throwing exceptions.
+     *
+     * @param bytes        The bytes
+     * @param offset       The range offset
+     * @param length       The range length
+     * @param defaultValue The value returned if the range is not valid or out of range
+     * @return The parsed value or the default value.
+     * @see #parseLong(CharSequence, long)
+     */
+    public static long parseLong(byte[] bytes, int offset, int length, long defaultValue) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        return new DecimalParser(bytes, offset, offset + length).parseLong(defaultValue);
+    }
+
+    /**
+     * Parses the specified decimal value to a {@code double} without throwing exceptions.
+     * <p>
+     * The value must be a decimal number as defined by {@link #isDecimal(CharSequence)}. The result is correctly rounded,
+     * the same as {@link Double#parseDouble(String)}, and is computed without creating objects for up to
+     * 15 significant digits and small exponents.
+     *
+     * @param value        The value
+     * @param defaultValue The value returned if the value is not valid
+     * @return The parsed value or the default value.
+     */
+    public static double parseDouble(CharSequence value, double defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        return new DecimalParser(value, 0, value.length()).parseDouble(defaultValue);
+    }
+
+    /**
+     * Parses the specified range of ASCII bytes to a {@code double} without throwing exceptions.
+     *
+     * @param bytes        The bytes
+     * @param offset       The range offset
+     * @param length       The range length
+     * @param defaultValue The value returned if the range is not valid
+     * @return The parsed value or the default value.
+     * @see #parseDouble(CharSequence, double)
+     */
+    public static double parseDouble(byte[] bytes, int offset, int length, double defaultValue) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        return new DecimalParser(bytes, offset, offset + length).parseDouble(defaultValue);
+    }
+
+    /**
+     * Parses the specified decimal value to a fixed-point {@code long} with the specified scale, without throwing exceptions.
+     * <p>
+     * For example, {@code "12.5"} parsed with scale 2 is {@code 1250}. The value must be a decimal number as defined
+     * by {@link #isDecimal(CharSequence)} and must be exactly representable with the specified scale.
+     *
+     * @param value        The value
+     * @param scale        The scale (number of fraction digits) of the result
+     * @param defaultValue The value returned if the value is not valid, is out of range or has more fraction digits than the scale
+     * @return The scaled value or the default value.
+     */
+    public static long parseScaled(CharSequence value, int scale, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        return new DecimalParser(value, 0, value.length()).parseScaled(scale, defaultValue);
+    }
+
+    /**
+     * Parses the specified range of ASCII bytes to a fixed-point {@code long} with the specified scale, without throwing exceptions.
+     *
+     * @param bytes        The bytes
+     * @param offset       The range offset
+     * @param length       The range length
+     * @param scale        The scale (number of fraction digits) of the result
+     * @param defaultValue The value returned if the range is not valid, is out of range or has more fraction digits than the scale
+     * @return The scaled value or the default value.
+     * @see #parseScaled(CharSequence, int, long)
+     */
+    public static long parseScaled(byte[] bytes, int offset, int length, int scale, long defaultValue) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        return new DecimalParser(bytes, offset, offset + length).parseScaled(scale, defaultValue);
+    }
+
+    /**
+     * Multiplies the value with 10 at the specified power if the result fits in a {@code long}.
+     *
+     * @param value         The value
+     * @param power         The non-negative power of ten
+     * @param overflowValue The value returned on overflow
+     * @return The result or the overflow value.
+     */
+    static long multiplyPowerOfTen(long value, int power, long overflowValue) {
+        if (value == 0) {
+            return 0;
+        }
+        if (power >= LONG_POWERS_OF_TEN.length) {
+            return overflowValue;
+        }
+        long factor = LONG_POWERS_OF_TEN[power];
+        long result = value * factor;
+        return Math.multiplyHigh(value, factor) == result >> 63 ? result : overflowValue;
+    }
+
+    /**
+     * Returns 10 at the specified power, which must be less than 19.
+     *
+     * @param power The power
+     * @return 10 at the specified power.
+     */
+    static long powerOfTen(int power) {
+        return LONG_POWERS_OF_TEN[power];
+    }
+
+    private static boolean hasNonAsciiChar(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 127) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parser of decimal numbers from characters or ASCII bytes, reporting failures without exceptions.
+     * <p>
+     * The grammar is the one of {@link BigDecimal#BigDecimal(String)} restricted to ASCII digits.
+     */
+    static final class DecimalParser {
+
+        private final CharSequence text;
+        private final byte[] bytes;
+        private final int start;
+        private int position;
+        private final int end;
+        /**
+         * {@code true} if the number is valid.
+         */
+        boolean valid;
+        /**
+         * {@code true} if the number is negative, including negative zero.
+         */
+        boolean negative;
+        /**
+         * The unscaled value, only if there is no overflow.
+         */
+        long unscaled;
+        /**
+         * The scale, the same as the {@link BigDecimal#scale()} of the number.
+         */
+        int scale;
+        /**
+         * {@code true} if the unscaled value doesn't fit in a {@code long}.
+         */
+        boolean overflow;
+        /**
+         * {@code true} if the number has neither a decimal point nor an exponent.
+         */
+        boolean integer;
+
+        DecimalParser(CharSequence text, int start, int end) {
+            this.text = text;
+            this.bytes = null;
+            this.start = start;
+            this.position = start;
+            this.end = end;
+        }
+
+        DecimalParser(byte[] bytes, int start, int end) {
+            this.text = null;
+            this.bytes = bytes;
+            this.start = start;
+            this.position = start;
+            this.end = end;
+        }
+
+        /**
+         * Parses the number.
+         *
+         * @return {@code true} if the number is valid, {@code false} otherwise.
+         */
+        boolean parse() {
+            if (position >= end) {
+                return false;
+            }
+            char c = charAt(position);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                position++;
+            }
+
+            // accumulated negatively, like Long.parseLong, so Long.MIN_VALUE fits
+            long value = 0;
+            boolean digits = false;
+            boolean point = false;
+            int fractionDigits = 0;
+            while (position < end) {
+                c = charAt(position);
+                if (c >= '0' && c <= '9') {
+                    int digit = c - '0';
+                    if (value < (Long.MIN_VALUE + digit) / 10) {
+                        overflow = true;
+                    } else {
+                        value = value * 10 - digit;
+                    }
+                    digits = true;
+                    if (point) {
+                        fractionDigits++;
+                    }
+                } else if (c == '.' && !point) {
+                    point = true;
+                } else {
+                    break;
+                }
+                position++;
+            }
+            if (!digits) {
+                return false;
+            }
+
+            long exponent = 0;
+            if (position < end && (c == 'e' || c == 'E')) {
+                position++;
+                boolean negativeExponent = false;
+                if (position < end && (charAt(position) == '-' || charAt(position) == '+')) {
+                    negativeExponent = charAt(position) == '-';
+                    position++;
+                }
+                int exponentStart = position;
+                while (position < end && (c = charAt(position)) >= '0' && c <= '9') {
+                    exponent = exponent * 10 + (c - '0');
+                    if (exponent > Integer.MAX_VALUE) {
+                        return false;
+                    }
+                    position++;
+                }
+                if (position == exponentStart) {
+                    return false;
+                }
+                exponent = negativeExponent ? -exponent : exponent;
+                point = true;
+            }
+            if (position != end) {
+                return false;
+            }
+
+            long fullScale = fractionDigits - exponent;
+            if (fullScale > Integer.MAX_VALUE || fullScale < Integer.MIN_VALUE) {
+                return false;
+            }
+            scale = (int) fullScale;
+            integer = !point;
+            if (!negative && value == Long.MIN_VALUE) {
+                overflow = true;
+            }
+            unscaled = negative ? value : -value;
+            valid = true;
+            return true;
+        }
+
+        long parseLong(long defaultValue) {
+            return parse() && integer && !overflow ? unscaled : defaultValue;
+        }
+
+        double parseDouble(double defaultValue) {
+            if (!parse()) {
+                return defaultValue;
+            }
+            long magnitude = Math.abs(unscaled);
+            if (!overflow && unscaled != Long.MIN_VALUE && magnitude <= MAX_EXACT_DOUBLE_INTEGER
+                    && Math.abs(scale) < DOUBLE_POWERS_OF_TEN.length) {
+                // both operands are exact, so the result is correctly rounded
+                double result = scale >= 0
+                        ? magnitude / DOUBLE_POWERS_OF_TEN[scale]
+                        : magnitude * DOUBLE_POWERS_OF_TEN[-scale];
+                return negative ? -result : result;
+            }
+            return Double.parseDouble(toText());
+        }
+
+        long parseScaled(int targetScale, long defaultValue) {
+            if (!parse() || overflow) {
+                return defaultValue;
+            }
+            if (scale <= targetScale) {
+                long power = (long) targetScale - scale;
+                return power > Integer.MAX_VALUE ? defaultValue : multiplyPowerOfTen(unscaled, (int) power, defaultValue);
+            }
+            long power = (long) scale - targetScale;
+            if (power >= LONG_POWERS_OF_TEN.length) {
+                return unscaled == 0 ? 0 : defaultValue;
+            }
+            long divisor = LONG_POWERS_OF_TEN[(int) power];
+            // the fraction digits beyond the target scale must be zeros
+            return unscaled % divisor == 0 ? unscaled / divisor : defaultValue;
+        }
+
+        private char charAt(int index) {
+            return bytes != null ? (char) (bytes[index] & 0xFF) : text.charAt(index);
+        }
+
+        private String toText() {
+            return bytes != null
+                    ? new String(bytes, start, end - start, StandardCharsets.ISO_8859_1)
+                    : text.subSequence(start, end).toString();
+        }
+    }
 }
@@ -0,0 +1,500 @@
+package io.github.amanzat.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Fixed capacity map of {@code long} keys to {@code long} values stored outside the Java heap, so that very large
+ * lookup tables don't add to the garbage collection work.
+ * <p>
+ * The entries are stored in an open addressing hash table with linear probing, split in pages of direct or
+ * memory-mapped {@link ByteBuffer}s, each slot holding a key and a value. The free slots are marked with the key 0,
+ * so the key 0 is tracked separately. The capacity is chosen when the map is created and the map is never resized.
+ * <p>
+ * A map opened with {@link #open(Path, int, long)} is persisted in a memory-mapped file and can be reopened after
+ * a restart without reading or rebuilding the table. The file is written in little-endian byte order.
+ * <p>
+ * The map must be {@link #close() closed} to release the memory or to unmap the file, after which it can't be used
+ * anymore. This class is not thread-safe.
+ *
+ * @see LongLongHashMap
+ */
+@Slf4j
+public final class OffHeapLongLongMap implements Closeable {
+
+    /**
+     * The size of the file header, holding the table metadata.
+     */
+    static final int HEADER_SIZE = 64;
+
+    /**
+     * The size of a table slot: the key and the value.
+     */
+    private static final int SLOT_SIZE = 16;
+
+    /**
+     * The maximum number of slots in a page (16 MiB).
+     */
+    private static final int MAX_PAGE_SLOTS = 1 << 20;
+
+    private static final long MAGIC = 0x4F48_4D41_504C_4C4DL;
+    private static final int VERSION = 1;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 8;
+    private static final int FLAGS_OFFSET = 12;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int SIZE_OFFSET = 24;
+    private static final int ZERO_KEY_VALUE_OFFSET = 32;
+    private static final int NO_ENTRY_VALUE_OFFSET = 40;
+
+    private static final int CONTAINS_ZERO_KEY_FLAG = 1;
+
+    private static final MethodHandle INVOKE_CLEANER = findInvokeCleaner();
+
+    private final ByteBuffer header;
+    private ByteBuffer[] pages;
+    private final boolean mapped;
+    private final int capacity;
+    private final int mask;
+    private final int shift;
+    private final int pageShift;
+    private final int pageMask;
+    private final int maxTableSize;
+    private final long noEntryValue;
+    private int tableSize;
+    private boolean containsZeroKey;
+    private long zeroKeyValue;
+
+    private OffHeapLongLongMap(ByteBuffer header, ByteBuffer[] pages, boolean mapped, int capacity) {
+        this.header = header.order(ByteOrder.LITTLE_ENDIAN);
+        this.pages = pages;
+        this.mapped = mapped;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.shift = Long.numberOfLeadingZeros(mask);
+        this.pageShift = Integer.numberOfTrailingZeros(pageSlots(capacity));
+        this.pageMask = pageSlots(capacity) - 1;
+        this.maxTableSize = (int) (capacity * LongHashSet.LOAD_FACTOR);
+        this.noEntryValue = header.getLong(NO_ENTRY_VALUE_OFFSET);
+        this.tableSize = (int) header.getLong(SIZE_OFFSET);
+        this.containsZeroKey = (header.getInt(FLAGS_OFFSET) & CONTAINS_ZERO_KEY_FLAG) != 0;
+        this.zeroKeyValue = header.getLong(ZERO_KEY_VALUE_OFFSET);
+        for (ByteBuffer page : pages) {
+            page.order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Creates an empty map in direct memory which can hold the specified number of entries.
+     *
+     * @param expectedSize The maximum number of entries
+     * @param noEntryValue The value returned for the missing keys
+     * @return The map.
+     */
+    public static OffHeapLongLongMap create(int expectedSize, long noEntryValue) {
+        int capacity = LongHashSet.capacityFor(expectedSize);
+        ByteBuffer header = ByteBuffer.allocateDirect(HEADER_SIZE);
+        writeHeader(header, capacity, noEntryValue);
+        ByteBuffer[] pages = new ByteBuffer[capacity / pageSlots(capacity)];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = ByteBuffer.allocateDirect(pageSlots(capacity) * SLOT_SIZE);
+        }
+        return new OffHeapLongLongMap(header, pages, false, capacity);
+    }
+
+    /**
+     * Opens the map persisted in the specified file, or creates the file with an empty map if it doesn't exist or is empty.
+     * <p>
+     * The expected size and the no entry value are only used when the map is created, a reopened map keeps its own.
+     *
+     * @param path         The file path
+     * @param expectedSize The maximum number of entries of a new map
+     * @param noEntryValue The value returned for the missing keys by a new map
+     * @return The map.
+     * @throws IOException if an I/O error occurs or if the file is not a valid map file
+     */
+    public static OffHeapLongLongMap open(Path path, int expectedSize, long noEntryValue) throws IOException {
+        boolean exists = Files.exists(path) && Files.size(path) > 0;
+        if (exists && Files.size(path) < HEADER_SIZE) {
+            throw new IOException("The file " + path + " is not a valid map file.");
+        }
+        ByteBuffer header = FileUtils.map(path, 0, HEADER_SIZE, HEADER_SIZE)[0].order(ByteOrder.LITTLE_ENDIAN);
+        int capacity;
+        if (exists) {
+            capacity = readCapacity(header, path);
+            if (Files.size(path) != HEADER_SIZE + (long) capacity * SLOT_SIZE) {
+                throw new IOException("The file " + path + " is truncated.");
+            }
+        } else {
+            capacity = LongHashSet.capacityFor(expectedSize);
+            writeHeader(header, capacity, noEntryValue);
+        }
+        int pageSize = pageSlots(capacity) * SLOT_SIZE;
+        MappedByteBuffer[] pages = FileUtils.map(path, HEADER_SIZE, (long) capacity * SLOT_SIZE, pageSize);
+        return new OffHeapLongLongMap(header, pages, true, capacity);
+    }
+
+    /**
+     * Returns the value returned for the missing keys.
+     *
+     * @return The value returned for the missing keys.
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return containsZeroKey ? tableSize + 1 : tableSize;
+    }
+
+    /**
+     * Returns {@code true} if the map has no entries, {@code false} otherwise.
+     *
+     * @return {@code true} if the map has no entries, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the maximum number of entries, excluding the key 0.
+     *
+     * @return The maximum number of entries.
+     */
+    public int maxSize() {
+        return maxTableSize;
+    }
+
+    /**
+     * Checks if the map contains the specified key.
+     *
+     * @param key The key
+     * @return {@code true} if the map contains the key, {@code false} otherwise.
+     */
+    public boolean containsKey(long key) {
+        ensureOpen();
+        return key == 0 ? containsZeroKey : find(key) >= 0;
+    }
+
+    /**
+     * Returns the value of the specified key.
+     *
+     * @param key The key
+     * @return The value of the key, or the no entry value if the map doesn't contain the key.
+     */
+    public long get(long key) {
+        ensureOpen();
+        if (key == 0) {
+            return containsZeroKey ? zeroKeyValue : noEntryValue;
+        }
+        int slot = find(key);
+        return slot >= 0 ? page(slot).getLong(offset(slot) + Long.BYTES) : noEntryValue;
+    }
+
+    /**
+     * Associates the specified value with the specified key.
+     *
+     * @param key   The key
+     * @param value The value
+     * @return The previous value of the key, or the no entry value if the map didn't contain the key.
+     * @throws IllegalStateException if the map is full
+     */
+    public long put(long key, long value) {
+        ensureOpen();
+        if (key == 0) {
+            long previous = containsZeroKey ? zeroKeyValue : noEntryValue;
+            setZeroKey(true, value);
+            return previous;
+        }
+        int slot = LongHashSet.slot(key, shift);
+        for (long current; (current = keyAt(slot)) != 0; slot = (slot + 1) & mask) {
+            if (current == key) {
+                ByteBuffer page = page(slot);
+                int offset = offset(slot) + Long.BYTES;
+                long previous = page.getLong(offset);
+                page.putLong(offset, value);
+                return previous;
+            }
+        }
+        insert(slot, key, value);
+        return noEntryValue;
+    }
+
+    /**
+     * Adds the specified delta to the value of the specified key, a missing key being considered to have the value 0.
+     *
+     * @param key   The key
+     * @param delta The delta
+     * @return The new value of the key.
+     * @throws IllegalStateException if the map is full
+     */
+    public long addTo(long key, long delta) {
+        ensureOpen();
+        if (key == 0) {
+            setZeroKey(true, containsZeroKey ? zeroKeyValue + delta : delta);
+            return zeroKeyValue;
+        }
+        int slot = LongHashSet.slot(key, shift);
+        for (long current; (current = keyAt(slot)) != 0; slot = (slot + 1) & mask) {
+            if (current == key) {
+                ByteBuffer page = page(slot);
+                int offset = offset(slot) + Long.BYTES;
+                long result = page.getLong(offset) + delta;
+                page.putLong(offset, result);
+                return result;
+            }
+        }
+        insert(slot, key, delta);
+        return delta;
+    }
+
+    /**
+     * Removes the specified key.
+     *
+     * @param key The key
+     * @return The value of the removed key, or the no entry value if the map didn't contain the key.
+     */
+    public long remove(long key) {
+        ensureOpen();
+        if (key == 0) {
+            long previous = containsZeroKey ? zeroKeyValue : noEntryValue;
+            setZeroKey(false, 0);
+            return previous;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return noEntryValue;
+        }
+        long previous = page(slot).getLong(offset(slot) + Long.BYTES);
+        deleteSlot(slot);
+        setTableSize(tableSize - 1);
+        return previous;
+    }
+
+    /**
+     * Removes all the entries.
+     */
+    public void clear() {
+        ensureOpen();
+        byte[] zeros = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+        for (ByteBuffer page : pages) {
+            for (int offset = 0; offset < page.capacity(); offset += zeros.length) {
+                page.put(offset, zeros, 0, Math.min(zeros.length, page.capacity() - offset));
+            }
+        }
+        setZeroKey(false, 0);
+        setTableSize(0);
+    }
+
+    /**
+     * Performs the specified action for each entry, in no particular order.
+     * <p>
+     * If the action closes the map, the iteration stops with an {@link IllegalStateException} before reading the
+     * released memory.
+     *
+     * @param action The action
+     */
+    public void forEach(LongLongHashMap.EntryConsumer action) {
+        ensureOpen();
+        ByteBuffer[] iterated = pages;
+        if (containsZeroKey) {
+            action.accept(0, zeroKeyValue);
+            ensureOpen();
+        }
+        for (ByteBuffer page : iterated) {
+            for (int offset = 0; offset < page.capacity(); offset += SLOT_SIZE) {
+                long key = page.getLong(offset);
+                if (key != 0) {
+                    action.accept(key, page.getLong(offset + Long.BYTES));
+                    // the pages are released by close, reading them again could crash the JVM
+                    ensureOpen();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the changes of a map persisted in a file to the storage device, does nothing otherwise.
+     */
+    public void force() {
+        ensureOpen();
+        if (mapped) {
+            ((MappedByteBuffer) header).force();
+            for (ByteBuffer page : pages) {
+                ((MappedByteBuffer) page).force();
+            }
+        }
+    }
+
+    /**
+     * Releases the memory of the map, or unmaps the file of a persisted map after writing the changes to the storage device.
+     * <p>
+     * The memory is released immediately when the JVM allows it, otherwise when the buffers are garbage collected.
+     * Closing a closed map has no effect.
+     */
+    @Override
+    public void close() {
+        if (pages == null) {
+            return;
+        }
+        force();
+        ByteBuffer[] released = pages;
+        pages = null;
+        free(header);
+        for (ByteBuffer page : released) {
+            free(page);
+        }
+    }
+
+    private void ensureOpen() {
+        if (pages == null) {
+            throw new IllegalStateException("The map is closed.");
+        }
+    }
+
+    /**
+     * Returns the slot of the specified non-zero key.
+     *
+     * @param key The key
+     * @return The slot of the key, or -1 if the table doesn't contain it.
+     */
+    private int find(long key) {
+        for (int slot = LongHashSet.slot(key, shift); ; slot = (slot + 1) & mask) {
+            long current = keyAt(slot);
+            if (current == key) {
+                return slot;
+            }
+            if (current == 0) {
+                return -1;
+            }
+        }
+    }
+
+    private void insert(int slot, long key, long value) {
+        if (tableSize >= maxTableSize) {
+            throw new IllegalStateException("The map is full, it can't hold more than " + maxTableSize + " entries.");
+        }
+        ByteBuffer page = page(slot);
+        int offset = offset(slot);
+        page.putLong(offset, key);
+        page.putLong(offset + Long.BYTES, value);
+        setTableSize(tableSize + 1);
+    }
+
+    /**
+     * Deletes the entry at the specified slot, moving back the following entries of the same probe sequence.
+     *
+     * @param slot The slot
+     */
+    private void deleteSlot(int slot) {
+        int free = slot;
+        for (int next = (free + 1) & mask; keyAt(next) != 0; next = (next + 1) & mask) {
+            long key = keyAt(next);
+            int home = LongHashSet.slot(key, shift);
+            // move the entry if the free slot is between its home slot and its current slot
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                ByteBuffer freePage = page(free);
+                freePage.putLong(offset(free), key);
+                freePage.putLong(offset(free) + Long.BYTES, page(next).getLong(offset(next) + Long.BYTES));
+                free = next;
+            }
+        }
+        page(free).putLong(offset(free), 0);
+    }
+
+    private long keyAt(int slot) {
+        return page(slot).getLong(offset(slot));
+    }
+
+    private ByteBuffer page(int slot) {
+        return pages[slot >>> pageShift];
+    }
+
+    private int offset(int slot) {
+        return (slot & pageMask) * SLOT_SIZE;
+    }
+
+    private void setTableSize(int tableSize) {
+        this.tableSize = tableSize;
+        header.putLong(SIZE_OFFSET, tableSize);
+    }
+
+    private void setZeroKey(boolean contained, long value) {
+        containsZeroKey = contained;
+        zeroKeyValue = value;
+        header.putInt(FLAGS_OFFSET, contained ? CONTAINS_ZERO_KEY_FLAG : 0);
+        header.putLong(ZERO_KEY_VALUE_OFFSET, value);
+    }
+
+    private static int pageSlots(int capacity) {
+        return Math.min(capacity, MAX_PAGE_SLOTS);
+    }
+
+    private static void writeHeader(ByteBuffer header, int capacity, long noEntryValue) {
+        header.order(ByteOrder.LITTLE_ENDIAN)
+                .putLong(MAGIC_OFFSET, MAGIC)
+                .putInt(VERSION_OFFSET, VERSION)
+                .putInt(FLAGS_OFFSET, 0)
+                .putLong(CAPACITY_OFFSET, capacity)
+                .putLong(SIZE_OFFSET, 0)
+                .putLong(ZERO_KEY_VALUE_OFFSET, 0)
+                .putLong(NO_ENTRY_VALUE_OFFSET, noEntryValue);
+    }
+
+    private static int readCapacity(ByteBuffer header, Path path) throws IOException {
+        if (header.getLong(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException("The file " + path + " is not a valid map file.");
+        }
+        long capacity = header.getLong(CAPACITY_OFFSET);
+        if (capacity <= 0 || capacity > LongHashSet.MAX_CAPACITY || Long.bitCount(capacity) != 1) {
+            throw new IOException("The file " + path + " has an invalid capacity: " + capacity);
+        }
+        return (int) capacity;
+    }
+
+    private static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invokeExact(buffer);
+            } catch (Throwable e) {
+                logger.debug("Can't free the direct buffer, it will be freed by the garbage collector.", e);
+            }
+        }
+    }
+
+    /**
+     * Finds {@code sun.misc.Unsafe.invokeCleaner}, which releases the memory of a direct buffer immediately.
+     *
+     * @return The method handle or {@code null} if it's not available.
+     */
+    private static MethodHandle findInvokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("The direct buffers can't be freed explicitly, they will be freed by the garbage collector.", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.amanzat.util;
+
+import lombok.Builder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket rate limiter.
+ * <p>
+ * The bucket holds at most {@code burst} permits and is refilled at {@code permitsPerSecond}. It's implemented with
+ * the generic cell rate algorithm: a single atomic "theoretical arrival time" is advanced by the emission interval of
+ * each acquired permit, so acquiring permits is a single compare-and-set without locks or background refills.
+ * <p>
+ * The timed and blocking acquires reserve the permits first and then wait until they are available, so the waiting
+ * threads are served in the order of their reservations. A reservation is not cancelled if the waiting thread is
+ * interrupted.
+ *
+ * @see ConcurrencyLimiter
+ * @see ThreadUtils#safeTryAcquire(java.util.concurrent.Semaphore, int, Duration)
+ */
+public final class RateLimiter {
+
+    private final long intervalNanos;
+    private final int burst;
+    private final long burstNanos;
+    private final LongSupplier ticker;
+    private final AtomicLong theoreticalArrivalNanos;
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     * Creates a rate limiter with a full bucket.
+     *
+     * @param permitsPerSecond The number of permits added to the bucket per second
+     * @param burst            The maximum number of permits in the bucket, 1 to space the permits evenly
+     * @param ticker           The source of {@link System#nanoTime()} values, {@code null} for the system ticker
+     */
+    @Builder
+    private RateLimiter(double permitsPerSecond, int burst, LongSupplier ticker) {
+        if (!(permitsPerSecond > 0) || burst <= 0) {
+            throw new IllegalArgumentException("The permits per second and the burst must be positive.");
+        }
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        if (intervalNanos > Long.MAX_VALUE / 4 / burst) {
+            throw new IllegalArgumentException("The permits per second are too low for the burst.");
+        }
+        this.burst = burst;
+        this.burstNanos = intervalNanos * burst;
+        this.ticker = ticker == null ? System::nanoTime : ticker;
+        this.theoreticalArrivalNanos = new AtomicLong(this.ticker.getAsLong());
+    }
+
+    /**
+     * Acquires a permit if it's available immediately.
+     *
+     * @return {@code true} if the permit was acquired, {@code false} otherwise.
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Acquires the specified number of permits if they are available immediately.
+     *
+     * @param permits The number of permits, at most the burst
+     * @return {@code true} if the permits were acquired, {@code false} otherwise.
+     */
+    public boolean tryAcquire(int permits) {
+        return tryAcquire(permits, Duration.ZERO);
+    }
+
+    /**
+     * Acquires the specified number of permits if they are available within the specified timeout, waiting for them.
+     *
+     * @param permits The number of permits, at most the burst
+     * @param timeout The maximum time to wait
+     * @return {@code true} if the permits were acquired, {@code false} if they are not available within the timeout
+     * or if the thread was interrupted while waiting.
+     */
+    public boolean tryAcquire(int permits, Duration timeout) {
+        long wait = reserve(permits, Math.max(0, ThreadUtils.toNanos(timeout)));
+        if (wait < 0) {
+            rejected.increment();
+            return false;
+        }
+        return await(wait);
+    }
+
+    /**
+     * Acquires the specified number of permits, waiting until they are available.
+     *
+     * @param permits The number of permits, at most the burst
+     * @return {@code true} if the permits were acquired, {@code false} if the thread was interrupted while waiting.
+     */
+    public boolean safeAcquire(int permits) {
+        return await(reserve(permits, Long.MAX_VALUE));
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the rate limiter.
+     *
+     * @return The statistics of the rate limiter.
+     */
+    public Stats stats() {
+        return new Stats(acquired.sum(), rejected.sum(), waitNanos.sum());
+    }
+
+    /**
+     * Reserves the permits if they are available within the specified time.
+     *
+     * @param permits      The number of permits
+     * @param maxWaitNanos The maximum time to wait for the permits
+     * @return The time to wait for the reserved permits, or -1 if they are not available within the specified time.
+     */
+    private long reserve(int permits, long maxWaitNanos) {
+        if (permits <= 0 || permits > burst) {
+            throw new IllegalArgumentException("The number of permits must be positive and at most " + burst + ".");
+        }
+        long cost = permits * intervalNanos;
+        while (true) {
+            long now = ticker.getAsLong();
+            long arrival = theoreticalArrivalNanos.get();
+            // an idle bucket is full, the unused permits are not accumulated beyond the burst
+            long next = (arrival - now > 0 ? arrival : now) + cost;
+            long wait = next - now - burstNanos;
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(arrival, next)) {
+                return Math.max(wait, 0);
+            }
+        }
+    }
+
+    private boolean await(long wait) {
+        acquired.increment();
+        if (wait == 0) {
+            return true;
+        }
+        waitNanos.add(wait);
+        long deadline = System.nanoTime() + wait;
+        for (long remaining = wait; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The statistics of a rate limiter.
+     *
+     * @param acquired       The number of acquires which reserved permits, including the interrupted ones
+     * @param rejected       The number of acquires which didn't get permits
+     * @param totalWaitNanos The total time spent waiting for the reserved permits
+     */
+    public record Stats(long acquired, long rejected, long totalWaitNanos) {
+    }
+}
@@ -2,15 +2,55 @@ package io.github.amanzat.util;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.event.Level;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
 /**
  * Miscellaneous utility methods for Slf4J.
+ * <p>
+ * The fixed-arity {@code log} methods check that the level is enabled first and don't allocate an arguments array
+ * for up to two arguments, so they are nearly free when the level is disabled. The {@code logLazy} methods compute
+ * the arguments only when the level is enabled; their suppliers should be non-capturing lambdas or method references
+ * on hot paths, the capturing lambdas being allocated at each call.
+ * <p>
+ * The {@code logRateLimited} methods protect the appenders from floods of similar messages, e.g. the warnings of
+ * invalid inputs: see {@link #logRateLimited(Logger, Level, String, Object)}. All these methods run the appenders on
+ * the caller thread, an {@link AsyncLogDispatcher} can be used to run them on a dedicated thread instead.
  */
+@Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class Slf4jUtils {
 
+    /**
+     * The maximum number ({@value}) of similar messages logged in a burst by the {@code logRateLimited} methods.
+     */
+    public static final int RATE_LIMITED_BURST = 10;
+
+    /**
+     * The number ({@value}) of similar messages logged per second by the {@code logRateLimited} methods, after a burst.
+     */
+    public static final double RATE_LIMITED_PERMITS_PER_SECOND = 1;
+
+    /**
+     * The rate-limited logs, by logger name and message format.
+     */
+    private static final Map<String, Map<String, RateLimitedLog>> RATE_LIMITED_LOGS = new ConcurrentHashMap<>();
+
+    /**
+     * The period, in seconds, of the summaries of the suppressed messages.
+     */
+    private static final long SUPPRESSED_SUMMARY_PERIOD_SECONDS = 1;
+
     /**
      * Simple logging based on the specified parameters.
      *
@@ -28,4 +68,290 @@ public final class Slf4jUtils {
             case ERROR -> logger.error(format, arguments);
         }
     }
+
+    /**
+     * Logs the message if the level is enabled.
+     *
+     * @param logger  The logger
+     * @param level   The level
+     * @param message The message
+     */
+    public static void log(Logger logger, Level level, String message) {
+        if (!logger.isEnabledForLevel(level)) {
+            return;
+        }
+        switch (level) {
+            case TRACE -> logger.trace(message);
+            case DEBUG -> logger.debug(message);
+            case INFO -> logger.info(message);
+            case WARN -> logger.warn(message);
+            case ERROR -> logger.error(message);
+        }
+    }
+
+    /**
+     * Logs the message with one argument if the level is enabled.
+     *
+     * @param logger   The logger
+     * @param level    The level
+     * @param format   The message format
+     * @param argument The argument
+     */
+    public static void log(Logger logger, Level level, String format, Object argument) {
+        if (!logger.isEnabledForLevel(level)) {
+            return;
+        }
+        switch (level) {
+            case TRACE -> logger.trace(format, argument);
+            case DEBUG -> logger.debug(format, argument);
+            case INFO -> logger.info(format, argument);
+            case WARN -> logger.warn(format, argument);
+            case ERROR -> logger.error(format, argument);
+        }
+    }
+
+    /**
+     * Logs the message with two arguments if the level is enabled.
+     *
+     * @param logger    The logger
+     * @param level     The level
+     * @param format    The message format
+     * @param argument1 The first argument
+     * @param argument2 The second argument
+     */
+    public static void log(Logger logger, Level level, String format, Object argument1, Object argument2) {
+        if (!logger.isEnabledForLevel(level)) {
+            return;
+        }
+        switch (level) {
+            case TRACE -> logger.trace(format, argument1, argument2);
+            case DEBUG -> logger.debug(format, argument1, argument2);
+            case INFO -> logger.info(format, argument1, argument2);
+            case WARN -> logger.warn(format, argument1, argument2);
+            case ERROR -> logger.error(format, argument1, argument2);
+        }
+    }
+
+    /**
+     * Logs the message with three arguments if the level is enabled.
+     * <p>
+     * Slf4J has no three arguments methods, so the arguments array is allocated only when the level is enabled.
+     *
+     * @param logger    The logger
+     * @param level     The level
+     * @param format    The message format
+     * @param argument1 The first argument
+     * @param argument2 The second argument
+     * @param argument3 The third argument
+     */
+    public static void log(Logger logger, Level level, String format, Object argument1, Object argument2, Object argument3) {
+        if (logger.isEnabledForLevel(level)) {
+            log(logger, level, format, new Object[]{argument1, argument2, argument3});
+        }
+    }
+
+    /**
+     * Logs the message with one lazily computed argument if the level is enabled.
+     *
+     * @param logger   The logger
+     * @param level    The level
+     * @param format   The message format
+     * @param argument The supplier of the argument, called only if the level is enabled
+     */
+    public static void logLazy(Logger logger, Level level, String format, Supplier<?> argument) {
+        if (logger.isEnabledForLevel(level)) {
+            log(logger, level, format, argument.get());
+        }
+    }
+
+    /**
+     * Logs the message with two lazily computed arguments if the level is enabled.
+     *
+     * @param logger    The logger
+     * @param level     The level
+     * @param format    The message format
+     * @param argument1 The supplier of the first argument, called only if the level is enabled
+     * @param argument2 The supplier of the second argument, called only if the level is enabled
+     */
+    public static void logLazy(Logger logger, Level level, String format, Supplier<?> argument1, Supplier<?> argument2) {
+        if (logger.isEnabledForLevel(level)) {
+            log(logger, level, format, argument1.get(), argument2.get());
+        }
+    }
+
+    /**
+     * Logs the message with lazily computed arguments if the level is enabled.
+     *
+     * @param logger    The logger
+     * @param level     The level
+     * @param format    The message format
+     * @param arguments The suppliers of the arguments, called only if the level is enabled
+     */
+    public static void logLazy(Logger logger, Level level, String format, Supplier<?>... arguments) {
+        if (logger.isEnabledForLevel(level)) {
+            Object[] values = new Object[arguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                values[i] = arguments[i].get();
+            }
+            log(logger, level, format, values);
+        }
+    }
+
+    /**
+     * Logs the message with one argument if the level is enabled and the rate limit of similar messages is not reached.
+     * <p>
+     * The messages logged with the same logger and format are similar: up to {@link #RATE_LIMITED_BURST} of them are
+     * logged in a burst, then {@link #RATE_LIMITED_PERMITS_PER_SECOND} per second. The suppressed messages are counted
+     * and the count is logged in a summary line before the next logged message, or by a background daemon thread
+     * every second if no similar message is logged meanwhile. The rate limit is lock-free and,
+     * after the first message, allocation-free. The format should be a constant, a rate limit being kept for each format.
+     *
+     * @param logger   The logger
+     * @param level    The level
+     * @param format   The message format
+     * @param argument The argument
+     */
+    public static void logRateLimited(Logger logger, Level level, String format, Object argument) {
+        if (logger.isEnabledForLevel(level) && rateLimitedLog(logger, format).tryAcquire(level)) {
+            log(logger, level, format, argument);
+        }
+    }
+
+    /**
+     * Logs the message with two arguments if the level is enabled and the rate limit of similar messages is not reached.
+     *
+     * @param logger    The logger
+     * @param level     The level
+     * @param format    The message format
+     * @param argument1 The first argument
+     * @param argument2 The second argument
+     * @see #logRateLimited(Logger, Level, String, Object)
+     */
+    public static void logRateLimited(Logger logger, Level level, String format, Object argument1, Object argument2) {
+        if (logger.isEnabledForLevel(level) && rateLimitedLog(logger, format).tryAcquire(level)) {
+            log(logger, level, format, argument1, argument2);
+        }
+    }
+
+    /**
+     * Logs the message with the arguments if the level is enabled and the rate limit of similar messages is not reached.
+     *
+     * @param logger    The logger
+     * @param level     The level
+     * @param format    The message format
+     * @param arguments The arguments
+     * @see #logRateLimited(Logger, Level, String, Object)
+     */
+    public static void logRateLimited(Logger logger, Level level, String format, Object... arguments) {
+        if (logger.isEnabledForLevel(level) && rateLimitedLog(logger, format).tryAcquire(level)) {
+            log(logger, level, format, arguments);
+        }
+    }
+
+    private static RateLimitedLog rateLimitedLog(Logger logger, String format) {
+        return RATE_LIMITED_LOGS.computeIfAbsent(logger.getName(), name -> new ConcurrentHashMap<>())
+                .computeIfAbsent(format, key -> new RateLimitedLog(logger, format, RATE_LIMITED_PERMITS_PER_SECOND, RATE_LIMITED_BURST, null));
+    }
+
+    /**
+     * Logs the summaries of the messages suppressed since the last summaries.
+     */
+    private static void logSuppressedSummaries() {
+        for (Map<String, RateLimitedLog> logs : RATE_LIMITED_LOGS.values()) {
+            for (RateLimitedLog log : logs.values()) {
+                try {
+                    log.logSuppressedSummary();
+                } catch (RuntimeException e) {
+                    logger.warn("Error while logging the suppressed messages summary.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The daemon thread logging the summaries of the suppressed messages periodically, started by the first suppressed message.
+     */
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class SuppressedSummaries {
+
+        static {
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rate-limited-log-summaries");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(Slf4jUtils::logSuppressedSummaries,
+                    SUPPRESSED_SUMMARY_PERIOD_SECONDS, SUPPRESSED_SUMMARY_PERIOD_SECONDS, TimeUnit.SECONDS);
+        }
+
+        /**
+         * Starts the daemon thread if not started yet: the first call initializes the class, the next ones do nothing.
+         */
+        private static void start() {
+            // started by the static initializer
+        }
+    }
+
+    /**
+     * The rate limit of similar messages, with the count of the suppressed messages.
+     */
+    static final class RateLimitedLog {
+
+        private final Logger logger;
+        private final String format;
+        private final RateLimiter limiter;
+        private final LongAdder suppressed = new LongAdder();
+        private volatile Level suppressedLevel;
+
+        /**
+         * Creates a rate limit.
+         *
+         * @param logger           The logger
+         * @param format           The message format
+         * @param permitsPerSecond The number of messages logged per second
+         * @param burst            The maximum number of messages logged in a burst
+         * @param ticker           The source of {@link System#nanoTime()} values, {@code null} for the system ticker
+         */
+        RateLimitedLog(Logger logger, String format, double permitsPerSecond, int burst, LongSupplier ticker) {
+            this.logger = logger;
+            this.format = format;
+            this.limiter = RateLimiter.builder().permitsPerSecond(permitsPerSecond).burst(burst).ticker(ticker).build();
+        }
+
+        /**
+         * Acquires the permit to log a message, logging the summary of the suppressed messages first if any.
+         *
+         * @param level The level
+         * @return {@code true} if the message can be logged, {@code false} if it's suppressed.
+         */
+        boolean tryAcquire(Level level) {
+            if (!limiter.tryAcquire()) {
+                if (suppressedLevel != level) {
+                    suppressedLevel = level;
+                }
+                suppressed.increment();
+                SuppressedSummaries.start();
+                return false;
+            }
+            logSummary(level);
+            return true;
+        }
+
+        /**
+         * Logs the summary of the suppressed messages if any, at the level of the last suppressed message.
+         */
+        void logSuppressedSummary() {
+            Level level = suppressedLevel;
+            if (level != null) {
+                logSummary(level);
+            }
+        }
+
+        private void logSummary(Level level) {
+            long count = suppressed.sumThenReset();
+            if (count > 0) {
+                log(logger, level, "Suppressed {} messages similar to: {}", count, format);
+            }
+        }
+    }
 }
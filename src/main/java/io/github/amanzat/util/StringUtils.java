@@ -3,7 +3,11 @@ package io.github.amanzat.util;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
 
 /**
  * Miscellaneous {@link String} utility methods and constants.
@@ -26,6 +30,11 @@ public final class StringUtils {
      */
     public static final String TRUNCATION_MARKER = "..";
 
+    /**
+     * View of a byte array as little-endian longs, used to check 8 bytes at once.
+     */
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
     /**
      * Returns {@code true} if the {@link CharSequence} is {@code null} or empty, {@code false} otherwise.
      *
@@ -54,6 +63,10 @@ public final class StringUtils {
      * @return {@code true} if the CharSequence is {@code null}, empty or whitespace only, {@code false} otherwise.
      */
     public static boolean isBlank(CharSequence charSequence) {
+        if (charSequence instanceof String string) {
+            // same definition of whitespace, optimized for the string internal representation
+            return string.isBlank();
+        }
         int length = length(charSequence);
         if (length == 0) {
             return true;
@@ -71,6 +84,7 @@ public final class StringUtils {
      *
      * @param value The string value
      * @return The string to uppercase or {@code null}.
+     * @see #toAsciiUpperCase(String) for a faster, locale independent, conversion of the ASCII letters
      */
     public static String toUpperCase(String value) {
         return value != null ? value.toUpperCase() : null;
@@ -81,11 +95,176 @@ public final class StringUtils {
      *
      * @param value The string value
      * @return The string to lowercase or {@code null}.
+     * @see #toAsciiLowerCase(String) for a faster, locale independent, conversion of the ASCII letters
      */
     public static String toLowerCase(String value) {
         return value != null ? value.toLowerCase() : null;
     }
 
+    /**
+     * Converts the ASCII letters of the specified {@link String value} to upper-case, independent of the locale.
+     * <br>The other characters are not changed.
+     *
+     * @param value The string value
+     * @return The upper-case string, the same instance if there is nothing to convert, or {@code null}.
+     */
+    public static String toAsciiUpperCase(String value) {
+        if (value == null) {
+            return null;
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (isAsciiLowerCase(value.charAt(i))) {
+                char[] chars = value.toCharArray();
+                toAsciiUpperCase(chars, i, length - i);
+                return new String(chars);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Converts the ASCII letters of the specified {@link String value} to lower-case, independent of the locale.
+     * <br>The other characters are not changed.
+     *
+     * @param value The string value
+     * @return The lower-case string, the same instance if there is nothing to convert, or {@code null}.
+     */
+    public static String toAsciiLowerCase(String value) {
+        if (value == null) {
+            return null;
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (isAsciiUpperCase(value.charAt(i))) {
+                char[] chars = value.toCharArray();
+                toAsciiLowerCase(chars, i, length - i);
+                return new String(chars);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Converts in place the ASCII letters of the specified range of characters to upper-case.
+     *
+     * @param chars  The characters
+     * @param offset The range offset
+     * @param length The range length
+     */
+    public static void toAsciiUpperCase(char[] chars, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, chars.length);
+        for (int i = offset; i < offset + length; i++) {
+            if (isAsciiLowerCase(chars[i])) {
+                chars[i] -= 'a' - 'A';
+            }
+        }
+    }
+
+    /**
+     * Converts in place the ASCII letters of the specified range of characters to lower-case.
+     *
+     * @param chars  The characters
+     * @param offset The range offset
+     * @param length The range length
+     */
+    public static void toAsciiLowerCase(char[] chars, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, chars.length);
+        for (int i = offset; i < offset + length; i++) {
+            if (isAsciiUpperCase(chars[i])) {
+                chars[i] += 'a' - 'A';
+            }
+        }
+    }
+
+    /**
+     * Converts in place the ASCII letters of the specified range of bytes to upper-case.
+     *
+     * @param bytes  The ASCII, Latin-1 or UTF-8 encoded bytes
+     * @param offset The range offset
+     * @param length The range length
+     */
+    public static void toAsciiUpperCase(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        for (int i = offset; i < offset + length; i++) {
+            if (isAsciiLowerCase((char) bytes[i])) {
+                bytes[i] -= 'a' - 'A';
+            }
+        }
+    }
+
+    /**
+     * Converts in place the ASCII letters of the specified range of bytes to lower-case.
+     *
+     * @param bytes  The ASCII, Latin-1 or UTF-8 encoded bytes
+     * @param offset The range offset
+     * @param length The range length
+     */
+    public static void toAsciiLowerCase(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        for (int i = offset; i < offset + length; i++) {
+            if (isAsciiUpperCase((char) bytes[i])) {
+                bytes[i] += 'a' - 'A';
+            }
+        }
+    }
+
+    /**
+     * Compares two {@link CharSequence values} ignoring the case of the ASCII letters.
+     *
+     * @param first  The first value
+     * @param second The second value
+     * @return {@code true} if the values are equal ignoring the ASCII case or both {@code null}, {@code false} otherwise.
+     */
+    public static boolean equalsIgnoreAsciiCase(CharSequence first, CharSequence second) {
+        if (first == second) {
+            return true;
+        }
+        if (first == null || second == null || first.length() != second.length()) {
+            return false;
+        }
+        for (int i = 0; i < first.length(); i++) {
+            char c1 = first.charAt(i);
+            char c2 = second.charAt(i);
+            if (c1 != c2 && toAsciiLowerCase(c1) != toAsciiLowerCase(c2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code ignoring the case of the ASCII letters, consistent with
+     * {@link #equalsIgnoreAsciiCase(CharSequence, CharSequence)}.
+     * <br>The hash code is the same as the {@link String#hashCode()} of {@link #toAsciiLowerCase(String)},
+     * so case-insensitive lookups don't need to convert the keys.
+     *
+     * @param value The value
+     * @return The hash code ignoring the ASCII case, 0 for {@code null}.
+     */
+    public static int hashCodeIgnoreAsciiCase(CharSequence value) {
+        if (value == null) {
+            return 0;
+        }
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            hash = 31 * hash + toAsciiLowerCase(value.charAt(i));
+        }
+        return hash;
+    }
+
+    private static boolean isAsciiUpperCase(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isAsciiLowerCase(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static char toAsciiLowerCase(char c) {
+        return isAsciiUpperCase(c) ? (char) (c + ('a' - 'A')) : c;
+    }
+
     /**
      * Truncates the specified {@link String} value to the maximum length and add the truncation marker
      * if the max length is greater than the marker's length.
@@ -142,7 +321,8 @@ public final class StringUtils {
         if (others == null || others.length == 0) {
             return value;
         }
-        StringBuilder result = new StringBuilder(value);
+        StringBuilder result = new StringBuilder(value.length() + joinedLength(others) + 1);
+        result.append(value);
         for (String other : others) {
             result.append(delimiter).append(other);
         }
@@ -161,17 +341,7 @@ public final class StringUtils {
             return null;
         }
 
-        StringBuilder result = new StringBuilder();
-        boolean first = true;
-        for (String value : values) {
-            if (first) {
-                first = false;
-            } else {
-                result.append(delimiter);
-            }
-            result.append(value);
-        }
-        return result.toString();
+        return appendJoined(new StringBuilder(joinedLength(values)), delimiter, values).toString();
     }
 
     /**
@@ -207,13 +377,226 @@ public final class StringUtils {
         }
 
         for (int i = 0; i < length; i++) {
-            if (!Character.isDigit(value.charAt(i))) {
+            char c = value.charAt(i);
+            // check the ASCII digits first, the other digits are rare
+            if ((c < '0' || c > '9') && (c < 128 || !Character.isDigit(c))) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * Checks if any of the specified {@link CharSequence values} is blank.
+     *
+     * @param values The values
+     * @return {@code true} if any of the values is blank, {@code false} otherwise or if there are no values.
+     * @see #isBlank(CharSequence)
+     */
+    public static boolean isAnyBlank(CharSequence... values) {
+        if (values == null) {
+            return false;
+        }
+        for (CharSequence value : values) {
+            if (isBlank(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if all the specified {@link CharSequence values} have only digits and the specified length.
+     *
+     * @param length The expected length
+     * @param values The values
+     * @return {@code true} if all the values have the expected length and only digits, {@code false} otherwise.
+     * @see #onlyDigits(CharSequence, int)
+     */
+    public static boolean onlyDigits(int length, CharSequence... values) {
+        if (values == null) {
+            return false;
+        }
+        for (CharSequence value : values) {
+            if (!onlyDigits(value, length)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the specified range of ASCII or Latin-1 encoded bytes is empty or whitespace only.
+     * <br>Whitespace is defined by {@link Character#isWhitespace(char)}.
+     *
+     * @param bytes  The bytes
+     * @param offset The range offset
+     * @param length The range length
+     * @return {@code true} if the range is empty or whitespace only, {@code false} otherwise.
+     * @implNote The bytes are checked 8 at a time, rejecting quickly the ranges with characters greater than space.
+     */
+    public static boolean isBlank(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        int end = offset + length;
+        int i = offset;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            long word = (long) LONG_VIEW.get(bytes, i);
+            // any byte greater than 0x20 (space) is not a whitespace
+            if ((((word + 0x5F5F5F5F5F5F5F5FL) | word) & 0x8080808080808080L) != 0) {
+                return false;
+            }
+            for (int j = i; j < i + Long.BYTES; j++) {
+                if (!isWhitespace(bytes[j])) {
+                    return false;
+                }
+            }
+        }
+        for (; i < end; i++) {
+            if (!isWhitespace(bytes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the specified range of ASCII, Latin-1 or UTF-8 encoded bytes has only ASCII digits.
+     *
+     * @param bytes  The bytes
+     * @param offset The range offset
+     * @param length The range length
+     * @return {@code true} if the range has only ASCII digits or is empty, {@code false} otherwise.
+     * @implNote The bytes are checked 8 at a time.
+     */
+    public static boolean onlyDigits(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        int end = offset + length;
+        int i = offset;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            long word = (long) LONG_VIEW.get(bytes, i);
+            // all the bytes are in the 0x30-0x39 range
+            if (((word & 0xF0F0F0F0F0F0F0F0L) | (((word + 0x0606060606060606L) & 0xF0F0F0F0F0F0F0F0L) >>> 4))
+                    != 0x3333333333333333L) {
+                return false;
+            }
+        }
+        for (; i < end; i++) {
+            if (bytes[i] < '0' || bytes[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if the Latin-1 byte is a whitespace as defined by {@link Character#isWhitespace(char)}.
+     *
+     * @param b The byte
+     * @return {@code true} if the byte is a whitespace, {@code false} otherwise.
+     */
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1C && b <= 0x1F);
+    }
+
+    /**
+     * Appends the input padded with the given character to the specified size to the target builder,
+     * without creating intermediate objects.
+     * <br>A {@code null} input is treated as empty and inputs longer than the size are appended unchanged.
+     *
+     * @param target    The target {@link StringBuilder}
+     * @param input     The {@link CharSequence} input to pad
+     * @param size      The size to pad
+     * @param character The character to pad with
+     * @param padding   The padding type
+     * @return The target builder.
+     */
+    public static StringBuilder appendPadded(StringBuilder target, CharSequence input, int size, char character, Padding padding) {
+        CharSequence value = input == null ? EMPTY_STRING : input;
+        int padSize = size - value.length();
+        target.ensureCapacity(target.length() + Math.max(size, value.length()));
+        if (padding == Padding.RIGHT) {
+            target.append(value);
+        }
+        for (int i = 0; i < padSize; i++) {
+            target.append(character);
+        }
+        if (padding == Padding.LEFT) {
+            target.append(value);
+        }
+        return target;
+    }
+
+    /**
+     * Appends the input padded with the given character to the specified size to the target {@link Appendable},
+     * without creating intermediate objects.
+     * <br>A {@code null} input is treated as empty and inputs longer than the size are appended unchanged.
+     *
+     * @param target    The target {@link Appendable}
+     * @param input     The {@link CharSequence} input to pad
+     * @param size      The size to pad
+     * @param character The character to pad with
+     * @param padding   The padding type
+     * @param <A>       The appendable type.
+     * @return The target appendable.
+     * @throws IOException if the appendable throws it
+     */
+    public static <A extends Appendable> A appendPadded(A target, CharSequence input, int size, char character, Padding padding)
+            throws IOException {
+        CharSequence value = input == null ? EMPTY_STRING : input;
+        int padSize = size - value.length();
+        if (padding == Padding.RIGHT) {
+            target.append(value);
+        }
+        for (int i = 0; i < padSize; i++) {
+            target.append(character);
+        }
+        if (padding == Padding.LEFT) {
+            target.append(value);
+        }
+        return target;
+    }
+
+    /**
+     * Appends the values separated by the delimiter to the target builder, presizing it to the exact joined length.
+     *
+     * @param target    The target {@link StringBuilder}
+     * @param delimiter The delimiter
+     * @param values    The values, {@code null} values are appended as {@code "null"}
+     * @return The target builder.
+     */
+    public static StringBuilder appendJoined(StringBuilder target, char delimiter, CharSequence... values) {
+        if (values == null || values.length == 0) {
+            return target;
+        }
+        target.ensureCapacity(target.length() + joinedLength(values));
+        target.append(values[0]);
+        for (int i = 1; i < values.length; i++) {
+            target.append(delimiter).append(values[i]);
+        }
+        return target;
+    }
+
+    /**
+     * Appends the value truncated to the maximum length to the target builder, with the same rules as
+     * {@link #truncateWithMarker(String, int)}, but without creating intermediate strings.
+     *
+     * @param target    The target {@link StringBuilder}
+     * @param value     The {@link CharSequence} value to truncate, {@code null} is appended as {@code "null"}
+     * @param maxLength The maximum length
+     * @return The target builder.
+     */
+    public static StringBuilder appendTruncated(StringBuilder target, CharSequence value, int maxLength) {
+        if (isBlank(value) || value.length() <= maxLength) {
+            return target.append(value);
+        }
+
+        int markerLength = TRUNCATION_MARKER.length();
+        target.ensureCapacity(target.length() + maxLength);
+        return maxLength <= markerLength
+                ? target.append(value, 0, maxLength)
+                : target.append(value, 0, maxLength - markerLength).append(TRUNCATION_MARKER);
+    }
+
     /**
      * Pads the specified string input with the given character.
      *
@@ -228,14 +611,25 @@ public final class StringUtils {
             return null;
         }
 
-        int padSize = size - input.length();
-        if (padSize <= 0) {
+        if (size - input.length() <= 0) {
             // no need to pad
             return input;
         }
-        char[] chars = new char[padSize];
-        Arrays.fill(chars, character);
-        return padding.concat(input, String.valueOf(chars));
+        return appendPadded(new StringBuilder(size), input, size, character, padding).toString();
+    }
+
+    /**
+     * Returns the length of the values joined with a single character delimiter.
+     *
+     * @param values The values, {@code null} values count as {@code "null"}
+     * @return The joined length.
+     */
+    private static int joinedLength(CharSequence[] values) {
+        int length = Math.max(0, values.length - 1);
+        for (CharSequence value : values) {
+            length += value == null ? 4 : value.length();
+        }
+        return length;
     }
 
     /**
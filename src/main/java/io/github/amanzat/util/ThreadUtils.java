@@ -4,16 +4,41 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 /**
  * Miscellaneous {@link Thread} utility methods.
+ * <p>
+ * The {@code safe*} methods don't throw {@link InterruptedException}: they restore the interrupt status of the
+ * current thread and return. None of the methods use monitors ({@code synchronized}), so they don't pin virtual threads.
  */
 @Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class ThreadUtils {
 
+    /**
+     * The name ({@value}) of the {@link MetricsRegistry#global() global} histogram of the time spent waiting for
+     * latches and semaphores by the {@code safe*} methods, in nanos. Only the calls which had to wait are recorded, the
+     * latches already open and the permits available at once cost no time measurement. The polls are not recorded,
+     * their waits being specific to each caller.
+     */
+    public static final String WAIT_TIME_METRIC = "thread.wait.time";
+
+    private static final LatencyHistogram WAIT_TIME = MetricsRegistry.global().histogram(WAIT_TIME_METRIC);
+
     /**
      * Safely sleeps the current thread for the specified number of millis.
      *
@@ -23,8 +48,7 @@ public final class ThreadUtils {
         try {
             Thread.sleep(millis);
         } catch (InterruptedException e) {
-            logger.warn("Error while sleeping.", e);
-            Thread.currentThread().interrupt();
+            interrupted("sleeping");
         }
     }
 
@@ -35,10 +59,40 @@ public final class ThreadUtils {
      */
     public static void safeAwait(CountDownLatch latch) {
         try {
-            latch.await();
+            if (!latch.await(0, TimeUnit.NANOSECONDS)) {
+                long start = System.nanoTime();
+                try {
+                    latch.await();
+                } finally {
+                    WAIT_TIME.recordSince(start);
+                }
+            }
+        } catch (InterruptedException e) {
+            interrupted("awaiting for CountDownLatch");
+        }
+    }
+
+    /**
+     * Safely waits for the latch to count down to zero, at most for the specified timeout.
+     *
+     * @param latch   The latch
+     * @param timeout The maximum time to wait
+     * @return {@code true} if the count reached zero, {@code false} if the timeout elapsed or the thread was interrupted.
+     */
+    public static boolean safeAwait(CountDownLatch latch, Duration timeout) {
+        try {
+            if (latch.await(0, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            long start = System.nanoTime();
+            try {
+                return latch.await(toNanos(timeout), TimeUnit.NANOSECONDS);
+            } finally {
+                WAIT_TIME.recordSince(start);
+            }
         } catch (InterruptedException e) {
-            logger.warn("Error occurred while awaiting for CountDownLatch.", e);
-            Thread.currentThread().interrupt();
+            interrupted("awaiting for CountDownLatch");
+            return false;
         }
     }
 
@@ -49,10 +103,219 @@ public final class ThreadUtils {
      */
     public static void safeAcquire(Semaphore semaphore) {
         try {
-            semaphore.acquire();
+            // the timed try honors the fairness of the semaphore, unlike the untimed one
+            if (!semaphore.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                long start = System.nanoTime();
+                try {
+                    semaphore.acquire();
+                } finally {
+                    WAIT_TIME.recordSince(start);
+                }
+            }
         } catch (InterruptedException e) {
-            logger.warn("Error occurred while acquiring semaphore permit.", e);
-            Thread.currentThread().interrupt();
+            interrupted("acquiring semaphore permit");
+        }
+    }
+
+    /**
+     * Safely acquires the specified number of semaphore permits, all at once.
+     *
+     * @param semaphore The semaphore
+     * @param permits   The number of permits
+     * @return {@code true} if the permits were acquired, {@code false} if the thread was interrupted.
+     */
+    public static boolean safeAcquire(Semaphore semaphore, int permits) {
+        try {
+            if (!semaphore.tryAcquire(permits, 0, TimeUnit.NANOSECONDS)) {
+                long start = System.nanoTime();
+                try {
+                    semaphore.acquire(permits);
+                } finally {
+                    WAIT_TIME.recordSince(start);
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            interrupted("acquiring semaphore permits");
+            return false;
+        }
+    }
+
+    /**
+     * Safely acquires the specified number of semaphore permits, waiting at most for the specified timeout.
+     *
+     * @param semaphore The semaphore
+     * @param permits   The number of permits
+     * @param timeout   The maximum time to wait
+     * @return {@code true} if the permits were acquired, {@code false} if the timeout elapsed or the thread was interrupted.
+     */
+    public static boolean safeTryAcquire(Semaphore semaphore, int permits, Duration timeout) {
+        return safeTryAcquireNanos(semaphore, permits, toNanos(timeout));
+    }
+
+    /**
+     * Safely acquires the specified number of semaphore permits, waiting at most until the specified deadline.
+     * <p>
+     * The deadline is a {@link System#nanoTime()} value, so several operations can share the same deadline.
+     *
+     * @param semaphore     The semaphore
+     * @param permits       The number of permits
+     * @param deadlineNanos The {@link System#nanoTime()} value until which to wait
+     * @return {@code true} if the permits were acquired, {@code false} if the deadline passed or the thread was interrupted.
+     */
+    public static boolean safeTryAcquireUntil(Semaphore semaphore, int permits, long deadlineNanos) {
+        return safeTryAcquireNanos(semaphore, permits, deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * Runs the specified tasks on the executor, at most {@code maxConcurrency} at the same time, and waits for all of them.
+     * <p>
+     * The calling thread submits the tasks in order and blocks while {@code maxConcurrency} tasks are running. After
+     * the first failure no more tasks are submitted. In all cases, this method returns only after all the submitted
+     * tasks completed, so no task outlives the call. The executor can be any executor, for example
+     * {@code Executors.newVirtualThreadPerTaskExecutor()} on Java 21+, the concurrency being bounded by this method.
+     *
+     * @param tasks          The tasks
+     * @param maxConcurrency The maximum number of tasks running at the same time
+     * @param executor       The executor running the tasks
+     * @param <T>            The result type.
+     * @return The results of the tasks, in the task order.
+     * @throws ExecutionException   if a task failed or was rejected by the executor, with the first failure as cause
+     * @throws InterruptedException if the calling thread was interrupted while submitting the tasks
+     */
+    public static <T> List<T> runAll(Collection<? extends Callable<? extends T>> tasks, int maxConcurrency, Executor executor)
+            throws ExecutionException, InterruptedException {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("The maximum concurrency must be positive.");
+        }
+        Semaphore permits = new Semaphore(maxConcurrency);
+        Object[] results = new Object[tasks.size()];
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try {
+            int index = 0;
+            for (Callable<? extends T> task : tasks) {
+                permits.acquire();
+                if (failure.get() != null) {
+                    permits.release();
+                    break;
+                }
+                int taskIndex = index++;
+                try {
+                    executor.execute(() -> {
+                        try {
+                            results[taskIndex] = task.call();
+                        } catch (Throwable e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    failure.compareAndSet(null, e);
+                    break;
+                }
+            }
+        } finally {
+            // wait for the submitted tasks, acquiring the permits also makes their results visible
+            permits.acquireUninterruptibly(maxConcurrency);
+        }
+        if (failure.get() != null) {
+            throw new ExecutionException(failure.get());
+        }
+        @SuppressWarnings("unchecked")
+        List<T> list = (List<T>) Arrays.asList(results);
+        return list;
+    }
+
+    /**
+     * Polls the condition until it's true, waiting between the attempts with the specified strategy.
+     *
+     * @param condition The condition
+     * @param strategy  The wait strategy
+     * @param timeout   The maximum time to poll
+     * @return {@code true} if the condition became true, {@code false} if the timeout elapsed or the thread was interrupted.
+     */
+    public static boolean pollUntil(BooleanSupplier condition, WaitStrategy strategy, Duration timeout) {
+        return poll(() -> condition.getAsBoolean() ? Boolean.TRUE : null, strategy, timeout) != null;
+    }
+
+    /**
+     * Polls the supplier until it returns a value, waiting between the attempts with the specified strategy.
+     * <p>
+     * For example, a latency-critical consumer can poll a queue with {@code poll(queue::poll, WaitStrategy.busySpin(), timeout)}
+     * while a background one can use {@link WaitStrategy#backoff(int, int, Duration, Duration)}. The waits are bounded by
+     * the remaining time with {@link WaitStrategy#idle(int, long)}.
+     *
+     * @param supplier The supplier, returning {@code null} while no value is available
+     * @param strategy The wait strategy
+     * @param timeout  The maximum time to poll
+     * @param <T>      The value type.
+     * @return The first value returned by the supplier, or {@code null} if the timeout elapsed or the thread was interrupted.
+     */
+    public static <T> T poll(Supplier<? extends T> supplier, WaitStrategy strategy, Duration timeout) {
+        long timeoutNanos = toNanos(timeout);
+        long start = System.nanoTime();
+        for (int attempt = 0; ; ) {
+            T value = supplier.get();
+            if (value != null) {
+                return value;
+            }
+            long remainingNanos = timeoutNanos - (System.nanoTime() - start);
+            if (Thread.currentThread().isInterrupted() || remainingNanos <= 0) {
+                return null;
+            }
+            // the wait can't overrun the timeout
+            strategy.idle(attempt, remainingNanos);
+            if (attempt < Integer.MAX_VALUE) {
+                attempt++;
+            }
+        }
+    }
+
+    private static boolean safeTryAcquireNanos(Semaphore semaphore, int permits, long timeoutNanos) {
+        try {
+            if (semaphore.tryAcquire(permits, 0, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            if (timeoutNanos <= 0) {
+                return false;
+            }
+            long start = System.nanoTime();
+            try {
+                return semaphore.tryAcquire(permits, timeoutNanos, TimeUnit.NANOSECONDS);
+            } finally {
+                WAIT_TIME.recordSince(start);
+            }
+        } catch (InterruptedException e) {
+            interrupted("acquiring semaphore permits");
+            return false;
+        }
+    }
+
+    /**
+     * Restores the interrupt status of the current thread.
+     * <p>
+     * The interruption is the expected way to cancel a thread, so it's logged without the stack trace.
+     *
+     * @param action The action which was interrupted
+     */
+    private static void interrupted(String action) {
+        logger.debug("Interrupted while {}.", action);
+        Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Returns the number of nanos of the specified duration, saturated to the {@code long} range.
+     *
+     * @param duration The duration
+     * @return The number of nanos.
+     */
+    static long toNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return duration.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
         }
     }
 }
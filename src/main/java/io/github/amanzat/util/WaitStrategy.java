@@ -0,0 +1,125 @@
+package io.github.amanzat.util;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Strategy used by a thread waiting for a condition to become true, trading CPU usage for latency.
+ * <p>
+ * The strategies are stateless: the caller passes the number of consecutive unsuccessful attempts, so the same
+ * strategy can be shared by several threads. None of them throw {@link InterruptedException}, the callers should
+ * check the interrupt status of the thread. The callers with a deadline bound the wait with {@link #idle(int, long)},
+ * so a long park time doesn't overrun their timeout.
+ *
+ * @see ThreadUtils#pollUntil(java.util.function.BooleanSupplier, WaitStrategy, Duration)
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+    /**
+     * Waits before the next attempt to check the condition.
+     *
+     * @param attempt The number of consecutive unsuccessful attempts, starting with 0
+     */
+    void idle(int attempt);
+
+    /**
+     * Waits before the next attempt to check the condition, at most for the specified time.
+     * <p>
+     * The default implementation ignores the maximum time, the strategies which park the thread should override it.
+     *
+     * @param attempt      The number of consecutive unsuccessful attempts, starting with 0
+     * @param maxWaitNanos The maximum time to wait, in nanos
+     */
+    default void idle(int attempt, long maxWaitNanos) {
+        idle(attempt);
+    }
+
+    /**
+     * Returns the strategy which spins with {@link Thread#onSpinWait()}: the lowest latency, but a CPU core is kept busy.
+     *
+     * @return The busy spin strategy.
+     */
+    static WaitStrategy busySpin() {
+        return attempt -> Thread.onSpinWait();
+    }
+
+    /**
+     * Returns the strategy which yields the CPU with {@link Thread#yield()}, letting other threads run on the same core.
+     *
+     * @return The yielding strategy.
+     */
+    static WaitStrategy yielding() {
+        return attempt -> Thread.yield();
+    }
+
+    /**
+     * Returns the strategy which parks the thread for the specified time: low CPU usage, but the latency is increased
+     * by up to the park time.
+     *
+     * @param parkTime The park time
+     * @return The sleeping strategy.
+     */
+    static WaitStrategy sleeping(Duration parkTime) {
+        long parkNanos = requirePositive(parkTime);
+        return new WaitStrategy() {
+            @Override
+            public void idle(int attempt) {
+                LockSupport.parkNanos(parkNanos);
+            }
+
+            @Override
+            public void idle(int attempt, long maxWaitNanos) {
+                LockSupport.parkNanos(Math.min(parkNanos, maxWaitNanos));
+            }
+        };
+    }
+
+    /**
+     * Returns the strategy which spins, then yields, then parks the thread with an exponentially increasing park time,
+     * so short waits have a low latency and long waits a low CPU usage.
+     *
+     * @param spins       The number of attempts which spin
+     * @param yields      The number of attempts which yield, after spinning
+     * @param minParkTime The park time of the first attempt which parks, doubled for each next attempt
+     * @param maxParkTime The maximum park time
+     * @return The backoff strategy.
+     */
+    static WaitStrategy backoff(int spins, int yields, Duration minParkTime, Duration maxParkTime) {
+        if (spins < 0 || yields < 0) {
+            throw new IllegalArgumentException("The number of spins and yields can't be negative.");
+        }
+        long minParkNanos = requirePositive(minParkTime);
+        long maxParkNanos = requirePositive(maxParkTime);
+        if (minParkNanos > maxParkNanos) {
+            throw new IllegalArgumentException("The minimum park time can't be greater than the maximum park time.");
+        }
+        long parkAttempt = (long) spins + yields;
+        return new WaitStrategy() {
+            @Override
+            public void idle(int attempt) {
+                idle(attempt, Long.MAX_VALUE);
+            }
+
+            @Override
+            public void idle(int attempt, long maxWaitNanos) {
+                if (attempt < spins) {
+                    Thread.onSpinWait();
+                } else if (attempt < parkAttempt) {
+                    Thread.yield();
+                } else {
+                    int shift = (int) Math.min(attempt - parkAttempt, Long.SIZE - 2);
+                    boolean capped = minParkNanos > maxParkNanos >> shift;
+                    LockSupport.parkNanos(Math.min(capped ? maxParkNanos : minParkNanos << shift, maxWaitNanos));
+                }
+            }
+        };
+    }
+
+    private static long requirePositive(Duration duration) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("The park time must be positive.");
+        }
+        return ThreadUtils.toNanos(duration);
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncLogDispatcherTest {
+
+    @Test
+    void dispatch() {
+        Logger logger = mock(Logger.class);
+        when(logger.isEnabledForLevel(Level.INFO)).thenReturn(true);
+        AsyncLogDispatcher dispatcher = AsyncLogDispatcher.builder().capacity(100).build();
+        assertThat(dispatcher.capacity()).isEqualTo(128);
+        try (dispatcher) {
+            // concurrent producers
+            CompletableFuture.allOf(IntStream.range(0, 4)
+                    .mapToObj(p -> CompletableFuture.runAsync(() -> IntStream.range(0, 250)
+                            .forEach(i -> dispatcher.log(logger, Level.INFO, "event {}", p))))
+                    .toArray(CompletableFuture[]::new)).join();
+            dispatcher.log(logger, Level.INFO, "message");
+            dispatcher.log(logger, Level.INFO, "two {} {}", 1, 2);
+            dispatcher.log(logger, Level.INFO, "three {} {} {}", 1, 2, 3);
+            dispatcher.log(logger, Level.INFO, "four {} {} {} {}", 1, 2, 3, 4);
+            dispatcher.log(logger, Level.DEBUG, "disabled {}", 1);
+        }
+        for (int p = 0; p < 4; p++) {
+            verify(logger, times(250)).info("event {}", p);
+        }
+        verify(logger).info("message");
+        verify(logger).info("two {} {}", 1, 2);
+        verify(logger).info("three {} {} {}", 1, 2, 3);
+        verify(logger).info("four {} {} {} {}", 1, 2, 3, 4);
+        verify(logger, never()).debug(anyString(), any(Object.class));
+        assertThat(dispatcher.stats()).isEqualTo(new AsyncLogDispatcher.Stats(1004, 0, 0));
+
+        // logged synchronously once closed
+        dispatcher.log(logger, Level.INFO, "closed");
+        verify(logger).info("closed");
+    }
+
+    @Test
+    void overflowPolicies() {
+        Logger logger = mock(Logger.class);
+        when(logger.isEnabledForLevel(any())).thenReturn(true);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(logger).error("slow");
+
+        AsyncLogDispatcher dispatcher = AsyncLogDispatcher.builder()
+                .capacity(2)
+                .overflowPolicy(AsyncLogDispatcher.OverflowPolicy.DROP_BELOW_LEVEL)
+                .waitStrategy(WaitStrategy.sleeping(Duration.ofMillis(1)))
+                .build();
+        try {
+            dispatcher.log(logger, Level.ERROR, "slow");
+            ThreadUtils.safeAwait(started);
+            // the slot of the event being dispatched is not free yet
+            dispatcher.log(logger, Level.INFO, "queued {}", 1);
+            dispatcher.log(logger, Level.INFO, "dropped {}", 2);
+            assertThat(dispatcher.stats().dropped()).isEqualTo(1);
+            CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> dispatcher.log(logger, Level.WARN, "blocked"));
+            assertThat(ThreadUtils.pollUntil(blocked::isDone, WaitStrategy.yielding(), Duration.ofMillis(20))).isFalse();
+            release.countDown();
+            blocked.join();
+        } finally {
+            release.countDown();
+            dispatcher.close();
+        }
+        verify(logger).info("queued {}", 1);
+        verify(logger, never()).info("dropped {}", 2);
+        verify(logger).warn("blocked");
+        assertThat(dispatcher.stats()).isEqualTo(new AsyncLogDispatcher.Stats(3, 1, 0));
+    }
+
+    @Test
+    void dropAndFailures() {
+        Logger logger = mock(Logger.class);
+        when(logger.isEnabledForLevel(any())).thenReturn(true);
+        when(logger.getName()).thenReturn("failing");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            throw new IllegalStateException(TestUtils.JUST_TESTING_MESSAGE);
+        }).when(logger).error("slow");
+        doThrow(new IllegalStateException(TestUtils.JUST_TESTING_MESSAGE)).when(logger).warn("failing");
+
+        AsyncLogDispatcher dispatcher = AsyncLogDispatcher.builder()
+                .capacity(1)
+                .overflowPolicy(AsyncLogDispatcher.OverflowPolicy.DROP)
+                .build();
+        try {
+            dispatcher.log(logger, Level.ERROR, "slow");
+            ThreadUtils.safeAwait(started);
+            dispatcher.log(logger, Level.WARN, "failing");
+            dispatcher.log(logger, Level.ERROR, "dropped");
+        } finally {
+            release.countDown();
+            dispatcher.close();
+        }
+        verify(logger, never()).error("dropped");
+        assertThat(dispatcher.stats()).isEqualTo(new AsyncLogDispatcher.Stats(2, 1, 2));
+    }
+
+    @Test
+    void dispatchErrors() {
+        Logger logger = mock(Logger.class);
+        when(logger.isEnabledForLevel(any())).thenReturn(true);
+        when(logger.getName()).thenReturn("failing");
+        doThrow(new AssertionError(TestUtils.JUST_TESTING_MESSAGE)).when(logger).error("error");
+
+        AsyncLogDispatcher dispatcher = AsyncLogDispatcher.builder().capacity(4).build();
+        try (dispatcher) {
+            dispatcher.log(logger, Level.ERROR, "error");
+            dispatcher.log(logger, Level.INFO, "next");
+        }
+        // the dispatcher survived the error
+        verify(logger).info("next");
+        assertThat(dispatcher.stats()).isEqualTo(new AsyncLogDispatcher.Stats(2, 0, 1));
+    }
+
+    @Test
+    void stoppedDispatcher() {
+        Logger logger = mock(Logger.class);
+        when(logger.isEnabledForLevel(any())).thenReturn(true);
+        CountDownLatch stopped = new CountDownLatch(1);
+        AsyncLogDispatcher dispatcher = AsyncLogDispatcher.builder()
+                .capacity(2)
+                .waitStrategy(attempt -> {
+                    throw new IllegalStateException(TestUtils.JUST_TESTING_MESSAGE);
+                })
+                .threadFactory(runnable -> new Thread(() -> {
+                    try {
+                        runnable.run();
+                    } finally {
+                        stopped.countDown();
+                    }
+                }))
+                .build();
+        try (dispatcher) {
+            ThreadUtils.safeAwait(stopped);
+            // logged synchronously instead of waiting forever for the dead dispatcher
+            IntStream.range(0, 4).forEach(i -> dispatcher.log(logger, Level.INFO, "event {}", i));
+            verify(logger, times(4)).info(anyString(), any(Object.class));
+        }
+        assertThat(dispatcher.stats().dropped()).isZero();
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> AsyncLogDispatcher.builder().capacity(0).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> AsyncLogDispatcher.builder().capacity((1 << 30) + 1).build());
+    }
+}
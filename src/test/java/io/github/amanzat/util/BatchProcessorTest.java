@@ -0,0 +1,121 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class BatchProcessorTest {
+
+    @Test
+    void flushOnSize() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        try (BatchProcessor<Integer> processor = BatchProcessor.<Integer>builder()
+                .batchSize(10)
+                .linger(Duration.ofMinutes(1))
+                .queueCapacity(20)
+                .executor(executor)
+                .maxInFlight(2)
+                .consumer(batches::add)
+                .build()) {
+            // concurrent producers
+            CompletableFuture.allOf(IntStream.range(0, 4)
+                    .mapToObj(p -> CompletableFuture.runAsync(() -> IntStream.range(p * 250, (p + 1) * 250)
+                            .forEach(i -> assertThat(safeOffer(processor, i)).isTrue())))
+                    .toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(batches).hasSize(100).allMatch(batch -> batch.size() == 10);
+        assertThat(batches.stream().flatMap(List::stream)).containsExactlyInAnyOrderElementsOf(IntStream.range(0, 1000).boxed().toList());
+    }
+
+    @Test
+    void flushOnLinger() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        try (BatchProcessor<String> processor = BatchProcessor.<String>builder()
+                .batchSize(100)
+                .linger(Duration.ofMillis(10))
+                .queueCapacity(100)
+                .executor(Runnable::run)
+                .maxInFlight(1)
+                .consumer(batch -> {
+                    batches.add(batch);
+                    flushed.countDown();
+                })
+                .build()) {
+            processor.put("a");
+            processor.put("b");
+            // the batch is flushed before being full and before closing the processor
+            flushed.await();
+            assertThat(batches).containsExactly(List.of("a", "b"));
+            assertThat(processor.getBatchCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void backpressureAndFailures() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        BatchProcessor<Integer> processor = BatchProcessor.<Integer>builder()
+                .batchSize(1)
+                .linger(Duration.ZERO)
+                .queueCapacity(1)
+                .executor(executor)
+                .maxInFlight(1)
+                .consumer(batch -> {
+                    ThreadUtils.safeAwait(release);
+                    throw new IllegalStateException(TestUtils.JUST_TESTING_MESSAGE);
+                })
+                .build();
+
+        // one batch in flight, one batch waiting for a permit, then the queue fills up
+        boolean rejected = false;
+        for (int i = 0; i < 10 && !rejected; i++) {
+            rejected = !processor.offer(i, Duration.ofMillis(20));
+        }
+        assertThat(rejected).isTrue();
+
+        release.countDown();
+        processor.close();
+        executor.shutdown();
+        assertThat(processor.getFailureCount()).isEqualTo(processor.getBatchCount()).isPositive();
+        assertThatIllegalStateException().isThrownBy(() -> processor.offer(1));
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> BatchProcessor.<Integer>builder()
+                .batchSize(0)
+                .linger(Duration.ZERO)
+                .queueCapacity(1)
+                .executor(Runnable::run)
+                .maxInFlight(1)
+                .consumer(batch -> {
+                })
+                .build());
+    }
+
+    private static boolean safeOffer(BatchProcessor<Integer> processor, int element) {
+        try {
+            return processor.offer(element, Duration.ofSeconds(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
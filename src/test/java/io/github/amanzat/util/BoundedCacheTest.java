@@ -0,0 +1,120 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class BoundedCacheTest {
+
+    @Test
+    void getAndPut() {
+        BoundedCache<String, Integer> cache = BoundedCache.<String, Integer>builder().maximumSize(10).build();
+        assertThat(cache.getIfPresent("a")).isNull();
+        cache.put("a", 1);
+        assertThat(cache.getIfPresent("a")).isEqualTo(1);
+        cache.put("a", 2);
+        assertThat(cache.getIfPresent("a")).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.invalidate("a");
+        assertThat(cache.getIfPresent("a")).isNull();
+        cache.put("b", 1);
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.stats()).isEqualTo(new BoundedCache.Stats(2, 2, 0, 0, 0));
+        assertThat(cache.stats().hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void loader() {
+        BoundedCache<Integer, String> cache = BoundedCache.<Integer, String>builder().maximumSize(10).build();
+        AtomicInteger loads = new AtomicInteger();
+        assertThat(cache.get(1, key -> "v" + key + loads.incrementAndGet())).isEqualTo("v11");
+        assertThat(cache.get(1, key -> "v" + key + loads.incrementAndGet())).isEqualTo("v11");
+        assertThat(loads).hasValue(1);
+
+        // null values are not cached
+        assertThat(cache.get(2, key -> null)).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+
+        assertThatIllegalStateException().isThrownBy(() -> cache.get(3, key -> {
+            throw new IllegalStateException(TestUtils.JUST_TESTING_MESSAGE);
+        }));
+        assertThat(cache.getIfPresent(3)).isNull();
+        assertThat(cache.stats()).isEqualTo(new BoundedCache.Stats(1, 4, 1, 0, 0));
+    }
+
+    @Test
+    void sizeEviction() {
+        BoundedCache<Integer, Integer> cache = BoundedCache.<Integer, Integer>builder().maximumSize(3).build();
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+        // the referenced entry gets a second chance
+        cache.getIfPresent(1);
+        cache.put(4, 4);
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.getIfPresent(1)).isEqualTo(1);
+        assertThat(cache.getIfPresent(2)).isNull();
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+
+        IntStream.range(10, 100).forEach(i -> cache.put(i, i));
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.getIfPresent(99)).isEqualTo(99);
+    }
+
+    @Test
+    void timeExpiration() {
+        AtomicLong now = new AtomicLong();
+        BoundedCache<String, String> cache = BoundedCache.<String, String>builder()
+                .maximumSize(10)
+                .expireAfterWrite(Duration.ofSeconds(1))
+                .ticker(now::get)
+                .build();
+        cache.put("a", "1");
+        cache.put("b", "2");
+        now.addAndGet(Duration.ofMillis(999).toNanos());
+        assertThat(cache.getIfPresent("a")).isEqualTo("1");
+
+        now.addAndGet(Duration.ofMillis(1).toNanos());
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.get("a", key -> "3")).isEqualTo("3");
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.cleanUp();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.stats().expirations()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentAccess() {
+        BoundedCache<Integer, Integer> cache = BoundedCache.<Integer, Integer>builder().maximumSize(100).build();
+        CompletableFuture<?>[] futures = IntStream.range(0, 8)
+                .mapToObj(thread -> CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        int key = (i * 7 + thread) % 500;
+                        assertThat(cache.get(key, k -> k * 2)).isEqualTo(key * 2);
+                    }
+                }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        BoundedCache.Stats stats = cache.stats();
+        assertThat(stats.hits() + stats.misses()).isEqualTo(80_000);
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> BoundedCache.builder().maximumSize(0).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> BoundedCache.builder().maximumSize(1).expireAfterWrite(Duration.ZERO).build());
+    }
+}
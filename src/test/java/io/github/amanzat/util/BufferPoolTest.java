@@ -0,0 +1,105 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class BufferPoolTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 1024",
+            "1, 1024",
+            "1024, 1024",
+            "1025, 2048",
+            "8192, 8192",
+            "100000, 131072",
+            "1048576, 1048576",
+            "1048577, 1048577"
+    })
+    void acquireCapacity(int requested, int expected) {
+        ByteBuffer buffer = BufferPool.shared(false, 1).acquire(requested);
+        assertThat(buffer.capacity()).isEqualTo(expected);
+        assertThat(buffer.position()).isZero();
+        assertThat(buffer.limit()).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void threadLocalReuse(boolean direct) {
+        BufferPool pool = BufferPool.threadLocal(direct, 1);
+        ByteBuffer buffer = pool.acquire(IOUtils.DEFAULT_BUFFER_SIZE);
+        assertThat(buffer.isDirect()).isEqualTo(direct);
+        buffer.putInt(123);
+        pool.release(buffer);
+
+        ByteBuffer reused = pool.acquire(IOUtils.DEFAULT_BUFFER_SIZE);
+        assertThat(reused).isSameAs(buffer);
+        assertThat(reused.position()).isZero();
+
+        // the pool is empty, a new buffer is allocated
+        ByteBuffer other = pool.acquire(IOUtils.DEFAULT_BUFFER_SIZE);
+        assertThat(other).isNotSameAs(buffer);
+
+        pool.release(reused);
+        // the pool is full
+        pool.release(other);
+        assertThat(pool.stats()).isEqualTo(new BufferPool.Stats(1, 2, 2, 1));
+    }
+
+    @Test
+    void threadLocalIsolation() {
+        BufferPool pool = BufferPool.threadLocal(false, 2);
+        pool.release(pool.acquire(IOUtils.DEFAULT_BUFFER_SIZE));
+
+        // another thread doesn't see the buffers released by this thread
+        ByteBuffer buffer = CompletableFuture.supplyAsync(() -> pool.acquire(IOUtils.DEFAULT_BUFFER_SIZE)).join();
+        assertThat(buffer).isNotNull();
+        assertThat(pool.stats().hits()).isZero();
+        assertThat(pool.stats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    void sharedReuse() {
+        BufferPool pool = BufferPool.shared(true, 2);
+        ByteBuffer buffer = pool.acquire(2000);
+        pool.release(buffer);
+
+        // another thread sees the buffers released by this thread
+        ByteBuffer reused = CompletableFuture.supplyAsync(() -> pool.acquire(2048)).join();
+        assertThat(reused).isSameAs(buffer);
+        assertThat(pool.isDirect()).isTrue();
+        assertThat(pool.stats()).isEqualTo(new BufferPool.Stats(1, 1, 1, 0));
+    }
+
+    @Test
+    void releaseForeignBuffers() {
+        BufferPool pool = BufferPool.shared(false, 2);
+        pool.release(null);
+        pool.release(ByteBuffer.allocateDirect(1024));
+        pool.release(ByteBuffer.allocate(1000));
+        pool.release(ByteBuffer.allocate(512));
+        pool.release(ByteBuffer.allocate(2 * BufferPool.MAX_POOLED_CAPACITY));
+        pool.release(ByteBuffer.allocate(1024).asReadOnlyBuffer());
+        assertThat(pool.stats().discards()).isEqualTo(5);
+
+        pool.release(ByteBuffer.allocate(1024));
+        assertThat(pool.stats().discards()).isEqualTo(5);
+        assertThat(pool.acquire(10).capacity()).isEqualTo(1024);
+        assertThat(pool.stats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> BufferPool.shared(false, 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> BufferPool.threadLocal(false, -1));
+        assertThatIllegalArgumentException().isThrownBy(() -> BufferPool.shared(false, 1).acquire(-1));
+    }
+}
@@ -1,13 +1,28 @@
 package io.github.amanzat.util;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static io.github.amanzat.util.StringUtils.EMPTY_STRING;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 class CollectionUtilsTest {
 
@@ -43,4 +58,138 @@ class CollectionUtilsTest {
     void chunkifyEmpty() {
         assertThat(CollectionUtils.chunkify(Collections.emptyIterator(), 5)).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void chunkifyList() {
+        List<Integer> numbers = IntStream.range(0, 1005).boxed().collect(Collectors.toList());
+
+        List<List<Integer>> chunks = CollectionUtils.chunkify(numbers, 10, true).collect(Collectors.toList());
+        assertThat(chunks).hasSize(101);
+        assertThat(chunks.subList(0, 100)).allMatch(chunk -> chunk.size() == 10);
+        assertThat(chunks.get(100)).containsExactly(1000, 1001, 1002, 1003, 1004);
+        assertThat(chunks.stream().flatMap(List::stream)).containsExactlyElementsOf(numbers);
+
+        // not random access lists are supported too
+        assertThat(CollectionUtils.chunkify(new LinkedList<>(numbers), 100, false)).hasSize(11);
+        assertThat(CollectionUtils.chunkify(Collections.emptyList(), 5, true)).isEmpty();
+    }
+
+    @Test
+    void chunkifyListSized() {
+        Spliterator<List<String>> spliterator = CollectionUtils.chunkify(Collections.nCopies(150, EMPTY_STRING), 20, false).spliterator();
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)).isTrue();
+        assertThat(spliterator.getExactSizeIfKnown()).isEqualTo(8);
+
+        Spliterator<List<String>> prefix = spliterator.trySplit();
+        assertThat(prefix.getExactSizeIfKnown()).isEqualTo(4);
+        assertThat(spliterator.getExactSizeIfKnown()).isEqualTo(4);
+    }
+
+    @Test
+    void chunkifySpliterator() {
+        List<Integer> numbers = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+
+        Stream<List<Integer>> chunks = CollectionUtils.chunkify(numbers.spliterator(), 7, false);
+        Spliterator<List<Integer>> spliterator = chunks.spliterator();
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED)).isTrue();
+        assertThat(spliterator.getExactSizeIfKnown()).isEqualTo(143);
+
+        List<List<Integer>> parallelChunks = CollectionUtils.chunkify(numbers.spliterator(), 7, true).collect(Collectors.toList());
+        assertThat(parallelChunks).allMatch(chunk -> !chunk.isEmpty() && chunk.size() <= 7);
+        assertThat(parallelChunks.stream().flatMap(List::stream)).containsExactlyElementsOf(numbers);
+    }
+
+    @Test
+    void chunkifyStream() {
+        AtomicInteger closed = new AtomicInteger();
+        try (Stream<List<Integer>> chunks = CollectionUtils.chunkify(IntStream.range(0, 100).boxed().parallel().onClose(closed::incrementAndGet), 10)) {
+            assertThat(chunks.isParallel()).isTrue();
+            assertThat(chunks.mapToInt(List::size).sum()).isEqualTo(100);
+        }
+        assertThat(closed).hasValue(1);
+    }
+
+    @Test
+    void chunkifyInvalidSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> CollectionUtils.chunkify(List.of(1), 0, false));
+        assertThatIllegalArgumentException().isThrownBy(() -> CollectionUtils.chunkify(List.of(1).spliterator(), -1, false));
+    }
+
+    @Test
+    void forEachChunk() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Integer> numbers = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+            List<List<Integer>> chunks = Collections.synchronizedList(new ArrayList<>());
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+
+            CompletableFuture<Void> result = CollectionUtils.forEachChunk(numbers.iterator(), 10, executor, 2, chunk -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                ThreadUtils.safeSleep(1);
+                chunks.add(chunk);
+                inFlight.decrementAndGet();
+            });
+            result.join();
+
+            assertThat(chunks).hasSize(100);
+            assertThat(chunks.stream().flatMap(List::stream)).containsExactlyInAnyOrderElementsOf(numbers);
+            assertThat(maxInFlight.get()).isBetween(1, 2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void forEachChunkFailure() {
+        List<Integer> numbers = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+        CompletableFuture<Void> result = CollectionUtils.forEachChunk(numbers.iterator(), 10, Runnable::run, 1, chunk -> {
+            throw new IllegalStateException(TestUtils.JUST_TESTING_MESSAGE);
+        });
+        assertThatExceptionOfType(CompletionException.class).isThrownBy(result::join)
+                .withCauseInstanceOf(IllegalStateException.class);
+        assertThatIllegalArgumentException().isThrownBy(() -> CollectionUtils.forEachChunk(numbers.iterator(), 10, Runnable::run, 0, chunk -> {
+        }));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1})
+    void forEachChunkInvalidSize(int size) {
+        List<Integer> numbers = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        assertThatIllegalArgumentException().isThrownBy(() -> CollectionUtils.forEachChunk(numbers.iterator(), size, Runnable::run, 1, chunk -> {
+        }));
+    }
+
+    @Test
+    void getFirstInt() {
+        assertThat(CollectionUtils.getFirstInt(null)).isEmpty();
+        assertThat(CollectionUtils.getFirstInt(new IntArrayList())).isEmpty();
+        assertThat(CollectionUtils.getFirstInt(IntArrayList.of(7, 8))).hasValue(7);
+    }
+
+    @Test
+    void chunkifyIntArrayList() {
+        IntArrayList list = IntArrayList.of(IntStream.range(0, 25).toArray());
+
+        List<int[]> chunks = CollectionUtils.chunkifyInts(list, 10, true).collect(Collectors.toList());
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks.get(0)).containsExactly(IntStream.range(0, 10).toArray());
+        assertThat(chunks.get(2)).containsExactly(20, 21, 22, 23, 24);
+        assertThat(CollectionUtils.chunkifyInts(new IntArrayList(), 10, false)).isEmpty();
+        assertThatIllegalArgumentException().isThrownBy(() -> CollectionUtils.chunkifyInts(list, 0, false));
+    }
+
+    @Test
+    void chunkifyPrimitiveIterators() {
+        List<int[]> ints = CollectionUtils.chunkifyInts(IntStream.range(0, 5).iterator(), 2).collect(Collectors.toList());
+        assertThat(ints).containsExactly(new int[]{0, 1}, new int[]{2, 3}, new int[]{4});
+
+        LongHashSet set = new LongHashSet();
+        set.addAll(0, 1, 2, 3, 4, 5, 6);
+        List<long[]> longs = CollectionUtils.chunkifyLongs(set.iterator(), 3).collect(Collectors.toList());
+        assertThat(longs).extracting(chunk -> chunk.length).containsExactly(3, 3, 1);
+        assertThat(longs.stream().flatMapToLong(Arrays::stream).sorted()).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L);
+        assertThatIllegalArgumentException().isThrownBy(() -> CollectionUtils.chunkifyLongs(set.iterator(), -1));
+    }
+}
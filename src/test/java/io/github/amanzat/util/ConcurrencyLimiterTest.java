@@ -0,0 +1,106 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ConcurrencyLimiterTest {
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    private ConcurrencyLimiter limiter(int initialLimit) {
+        return ConcurrencyLimiter.builder()
+                .initialLimit(initialLimit)
+                .minLimit(1)
+                .maxLimit(4)
+                .latencyThreshold(Duration.ofMillis(10))
+                .backoffRatio(0.5)
+                .ticker(ticker::get)
+                .build();
+    }
+
+    @Test
+    void limit() {
+        ConcurrencyLimiter limiter = limiter(2);
+        ConcurrencyLimiter.Permit first = limiter.tryAcquire();
+        ConcurrencyLimiter.Permit second = limiter.tryAcquire();
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(limiter.tryAcquire()).isNull();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        first.releaseIgnored();
+        // the next releases have no effect
+        first.release();
+        first.releaseDropped();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.tryAcquire()).isNotNull();
+        assertThat(limiter.stats()).isEqualTo(new ConcurrencyLimiter.Stats(3, 1, 0, 0, 2));
+    }
+
+    @Test
+    void additiveIncrease() {
+        ConcurrencyLimiter limiter = limiter(2);
+        for (int i = 0; i < 2; i++) {
+            limiter.tryAcquire().release();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        limiter.tryAcquire().release();
+        assertThat(limiter.getLimit()).isEqualTo(3);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire().release();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void multiplicativeDecrease() {
+        ConcurrencyLimiter limiter = limiter(4);
+        ConcurrencyLimiter.Permit slow = limiter.tryAcquire();
+        ticker.addAndGet(Duration.ofMillis(20).toNanos());
+        slow.release();
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        limiter.tryAcquire().releaseDropped();
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        limiter.tryAcquire().releaseDropped();
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.stats().dropped()).isEqualTo(2);
+    }
+
+    @Test
+    void timedAcquire() {
+        ConcurrencyLimiter limiter = limiter(1);
+        ConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        assertThat(limiter.tryAcquire(Duration.ofMillis(5))).isNull();
+
+        CompletableFuture.runAsync(() -> {
+            ThreadUtils.safeSleep(5);
+            permit.releaseIgnored();
+        });
+        ConcurrencyLimiter.Permit next = limiter.safeAcquire();
+        assertThat(next).isNotNull();
+        assertThat(limiter.stats().rejected()).isEqualTo(1);
+        assertThat(limiter.stats().totalWaitNanos()).isPositive();
+
+        Thread.currentThread().interrupt();
+        assertThat(limiter.safeAcquire()).isNull();
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ConcurrencyLimiter.builder()
+                .initialLimit(1).minLimit(2).maxLimit(4).latencyThreshold(Duration.ofMillis(10)).backoffRatio(0.5).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> ConcurrencyLimiter.builder()
+                .initialLimit(1).minLimit(1).maxLimit(4).latencyThreshold(Duration.ofMillis(10)).backoffRatio(1).build());
+    }
+}
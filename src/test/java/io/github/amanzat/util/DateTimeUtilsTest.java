@@ -6,6 +6,7 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,9 +26,52 @@ class DateTimeUtilsTest {
         assertThat(DateTimeUtils.formatDurationHMS(millis)).isEqualTo(expected);
     }
 
+    @ParameterizedTest
+    @CsvSource({
+            "0, 00:00:00.000",
+            "59999, 00:00:59.999",
+            "3600000, 01:00:00.000",
+            "1000000123, 277:46:40.123",
+            "9223372036854775807, 2562047788015:12:55.807"
+    })
+    void formatDurationHMSIntoBuffers(long millis, String expected) {
+        assertThat(DateTimeUtils.appendDurationHMS(new StringBuilder("> "), millis)).hasToString("> " + expected);
+
+        char[] chars = new char[40];
+        int end = DateTimeUtils.formatDurationHMS(millis, chars, 2);
+        assertThat(new String(chars, 2, end - 2)).isEqualTo(expected);
+
+        byte[] bytes = new byte[40];
+        end = DateTimeUtils.formatDurationHMS(millis, bytes, 3);
+        assertThat(new String(bytes, 3, end - 3, StandardCharsets.US_ASCII)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 00:00:00.000000000",
+            "1, 00:00:00.000000001",
+            "3723004005006, 01:02:03.004005006",
+            "360000000000000, 100:00:00.000000000",
+            "9223372036854775807, 2562047:47:16.854775807"
+    })
+    void formatDurationHMSNanos(long nanos, String expected) {
+        assertThat(DateTimeUtils.appendDurationHMSNanos(new StringBuilder(), nanos)).hasToString(expected);
+
+        char[] chars = new char[40];
+        int end = DateTimeUtils.formatDurationHMSNanos(nanos, chars, 0);
+        assertThat(new String(chars, 0, end)).isEqualTo(expected);
+
+        byte[] bytes = new byte[40];
+        end = DateTimeUtils.formatDurationHMSNanos(nanos, bytes, 0);
+        assertThat(new String(bytes, 0, end, StandardCharsets.US_ASCII)).isEqualTo(expected);
+    }
+
     @Test
     void formatDurationNegativeMillis() {
         assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> DateTimeUtils.formatDurationHMS(-1L));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> DateTimeUtils.appendDurationHMSNanos(new StringBuilder(), -1L));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> DateTimeUtils.formatDurationHMS(-1L, new char[20], 0));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> DateTimeUtils.formatDurationHMSNanos(-1L, new byte[20], 0));
     }
 
     @Test
@@ -42,5 +86,42 @@ class DateTimeUtilsTest {
     @ValueSource(strings = {"", "   ", "      ", "invalid", "abc", "123"})
     void asDurationBlankOrInvalid(String value) {
         assertThat(DateTimeUtils.asDuration(value)).isNull();
+        // the invalid values are cached
+        assertThat(DateTimeUtils.asDuration(value)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"PT1S", "pt1s", "PT0S", "P1D", "P2DT3H4M", "PT20.345S", "PT-6H3M", "-PT6H3M", "-PT-6H+3M",
+            "PT-0.5S", "PT1,5S", "PT1.S", "+P1DT1H", "P-1D", "PT9223372036854775807S", "PT0.123456789S", " PT15M "})
+    void parseDurationIso(String value) {
+        assertThat(DateTimeUtils.parseDuration(value)).isEqualTo(Duration.parse(value.strip()));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "150ms, PT0.15S",
+            "2h30m, PT2H30M",
+            "2H30M, PT2H30M",
+            "1d 12h, PT36H",
+            "-1m30s, -PT1M30S",
+            "+45s, PT45S",
+            "1500us, PT0.0015S",
+            "7µs, PT0.000007S",
+            "1000000001ns, PT1.000000001S",
+            "1s 1ms 1us 1ns, PT1.001001001S",
+            "' 5m ', PT5M"
+    })
+    void parseDurationHumanFriendly(String value, Duration expected) {
+        assertThat(DateTimeUtils.parseDuration(value)).isEqualTo(expected);
+        assertThat(DateTimeUtils.asDuration(value)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", " ", "-", "P", "PT", "PTS", "P1H", "PT1D", "PT1M1H", "PT1.5M", "PT1.1234567891S", "P1DT",
+            "PT1H1H", "PT1S ms", "1", "1.5s", "1x", "1mss", "1ks", "s", "h1", "--1s", "1s-", "PT99999999999999999999S",
+            "9223372036854775807d", "106751991167301d", "P106751991167301D", "-PT-9223372036854775808S"})
+    void parseDurationInvalid(String value) {
+        assertThat(DateTimeUtils.parseDuration(value)).isNull();
     }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static io.github.amanzat.util.TestUtils.INVALID_STR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class DecimalTest {
+
+    private static final List<String> VALUES = List.of("0", "-0.00", "1", "-1", "0.1", "12.345", "-12.3", "1E+3", "1.5E+2",
+            "0.000000000000000000001", "99999999999999.9999", "9223372036854775807", "-9223372036854775808",
+            "922337203685477580.7", "123456789012345678901234567890.5", "-1E-30", "4.5", "5.5", "-2.5");
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-0.00", "1.50", "-12.345", "1E+3", "-12E+3", "0.0000001", "9223372036854775807",
+            "-9223372036854775808", "123456789012345678901234567890.12", "1.2E+40", "١٢.٥"})
+    void parseRoundTrip(String input) {
+        Decimal decimal = Decimal.parse(input);
+        BigDecimal expected = NumberUtils.safeParseDecimal(input);
+        assertThat(decimal.toBigDecimal()).isEqualTo(expected);
+        assertThat(Decimal.parse(decimal.toString())).isEqualTo(decimal);
+        assertThat(NumberUtils.safeParseDecimal(decimal.toString())).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 0",
+            "-0.00, 0.00",
+            "1.50, 1.50",
+            "-0.05, -0.05",
+            "-123.4567, -123.4567",
+            "1E+3, 1E+3",
+            "0.0000001, 0.0000001",
+            "-9223372036854775808, -9223372036854775808",
+            "-922337203685477580.8, -922337203685477580.8"
+    })
+    void format(String input, String expected) {
+        Decimal decimal = Decimal.parse(input);
+        assertThat(decimal).hasToString(expected);
+        assertThat(decimal.appendTo(new StringBuilder("x=")).toString()).isEqualTo("x=" + expected);
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", "  ", "A", ".", "1e", INVALID_STR})
+    void parseInvalid(String input) {
+        assertThat(Decimal.parse(input)).isNull();
+    }
+
+    @Test
+    void arithmeticSameAsBigDecimal() {
+        for (String left : VALUES) {
+            for (String right : VALUES) {
+                Decimal a = Decimal.parse(left);
+                Decimal b = Decimal.parse(right);
+                BigDecimal x = new BigDecimal(left);
+                BigDecimal y = new BigDecimal(right);
+                assertThat(a.add(b).toBigDecimal()).as("%s + %s", left, right).isEqualTo(x.add(y));
+                assertThat(a.subtract(b).toBigDecimal()).as("%s - %s", left, right).isEqualTo(x.subtract(y));
+                assertThat(a.multiply(b).toBigDecimal()).as("%s * %s", left, right).isEqualTo(x.multiply(y));
+                assertThat(a.compareTo(b)).as("%s <=> %s", left, right).isEqualTo(x.compareTo(y));
+                assertThat(a.equals(b)).as("%s == %s", left, right).isEqualTo(x.equals(y));
+            }
+        }
+    }
+
+    @Test
+    void conversionsSameAsBigDecimal() {
+        for (String value : VALUES) {
+            Decimal decimal = Decimal.parse(value);
+            BigDecimal expected = new BigDecimal(value);
+            assertThat(decimal.negate().toBigDecimal()).as(value).isEqualTo(expected.negate());
+            assertThat(decimal.signum()).as(value).isEqualTo(expected.signum());
+            assertThat(decimal.longValue()).as(value).isEqualTo(expected.longValue());
+            assertThat(decimal.intValue()).as(value).isEqualTo(expected.intValue());
+            assertThat(decimal.doubleValue()).as(value).isEqualTo(expected.doubleValue());
+            assertThat(decimal.floatValue()).as(value).isEqualTo(expected.floatValue());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = RoundingMode.class, names = "UNNECESSARY", mode = EnumSource.Mode.EXCLUDE)
+    void setScaleSameAsBigDecimal(RoundingMode roundingMode) {
+        for (String value : VALUES) {
+            for (int scale : new int[]{-2, 0, 1, 3, 20}) {
+                assertThat(Decimal.parse(value).setScale(scale, roundingMode).toBigDecimal())
+                        .as("%s scale %d", value, scale)
+                        .isEqualTo(new BigDecimal(value).setScale(scale, roundingMode));
+            }
+        }
+    }
+
+    @Test
+    void setScaleUnnecessary() {
+        assertThat(Decimal.parse("1.50").setScale(1, RoundingMode.UNNECESSARY)).hasToString("1.5");
+        assertThatExceptionOfType(ArithmeticException.class)
+                .isThrownBy(() -> Decimal.parse("1.55").setScale(1, RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    void compactRepresentation() {
+        Decimal price = Decimal.valueOf(12345, 2);
+        assertThat(price.isCompact()).isTrue();
+        assertThat(price.unscaledValue()).isEqualTo(12345);
+        assertThat(price.scale()).isEqualTo(2);
+        assertThat(price).isEqualTo(Decimal.valueOf(new BigDecimal("123.45")));
+        assertThat(price).isNotEqualTo(Decimal.parse("123.450")).isEqualByComparingTo(Decimal.parse("123.450"));
+        assertThat(price.hashCode()).isEqualTo(Decimal.parse("123.45").hashCode());
+        assertThat(Decimal.valueOf(0)).isSameAs(Decimal.ZERO);
+        assertThat(Decimal.valueOf(1)).isEqualTo(Decimal.ONE);
+
+        Decimal overflow = Decimal.valueOf(Long.MAX_VALUE).add(Decimal.ONE);
+        assertThat(overflow.isCompact()).isFalse();
+        assertThat(overflow).hasToString("9223372036854775808");
+        assertThatExceptionOfType(ArithmeticException.class).isThrownBy(overflow::unscaledValue);
+        assertThat(overflow.subtract(Decimal.ONE).isCompact()).isTrue();
+    }
+}
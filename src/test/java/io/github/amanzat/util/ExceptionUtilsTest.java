@@ -1,9 +1,17 @@
 package io.github.amanzat.util;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeoutException;
 
 import static io.github.amanzat.util.TestUtils.JUST_TESTING_MESSAGE;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -51,4 +59,168 @@ class ExceptionUtilsTest {
         when(throwable.getCause()).thenReturn(cause);
         assertThat(ExceptionUtils.getCause(throwable)).isEqualTo(cause);
     }
-}
\ No newline at end of file
+
+    @Test
+    void throwableOfAnyType() {
+        IOException ioException = new IOException(JUST_TESTING_MESSAGE);
+        UncheckedIOException uncheckedIOException = new UncheckedIOException(ioException);
+        IllegalStateException illegalStateException = new IllegalStateException(uncheckedIOException);
+
+        assertThat(ExceptionUtils.throwableOfAnyType(illegalStateException, IOException.class, UncheckedIOException.class))
+                .isSameAs(uncheckedIOException);
+        assertThat(ExceptionUtils.throwableOfAnyType(illegalStateException, IOException.class, null)).isSameAs(ioException);
+        assertThat(ExceptionUtils.throwableOfAnyType(illegalStateException, NullPointerException.class)).isNull();
+        assertThat(ExceptionUtils.throwableOfAnyType(illegalStateException)).isNull();
+        assertThat(ExceptionUtils.throwableOfAnyType(null, IOException.class)).isNull();
+    }
+
+    @Test
+    void indexOfType() {
+        IOException ioException = new IOException(JUST_TESTING_MESSAGE);
+        UncheckedIOException uncheckedIOException = new UncheckedIOException(ioException);
+        IllegalStateException illegalStateException = new IllegalStateException(uncheckedIOException);
+
+        assertThat(ExceptionUtils.indexOfType(illegalStateException, RuntimeException.class)).isZero();
+        assertThat(ExceptionUtils.indexOfType(illegalStateException, UncheckedIOException.class)).isEqualTo(1);
+        assertThat(ExceptionUtils.indexOfType(illegalStateException, IOException.class)).isEqualTo(2);
+        assertThat(ExceptionUtils.indexOfType(illegalStateException, NullPointerException.class)).isEqualTo(-1);
+        assertThat(ExceptionUtils.indexOfType(null, IOException.class)).isEqualTo(-1);
+        assertThat(ExceptionUtils.indexOfType(ioException, null)).isEqualTo(-1);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, -1",
+            "2, -1",
+            "5, -1",
+            "10, -1",
+            "1, 0",
+            "3, 0",
+            "3, 2",
+            "8, 3",
+            "8, 7",
+            "37, 20",
+    })
+    void chainWithCycle(int length, int cycleStart) {
+        // the last throwable is caused by an earlier one, or by itself through a mock
+        boolean selfCause = cycleStart == length - 1;
+        Throwable[] chain = new Throwable[length];
+        for (int i = 0; i < length - 1; i++) {
+            chain[i] = new RuntimeException(Integer.toString(i));
+        }
+        chain[length - 1] = selfCause ? mock(Throwable.class) : new IOException("last");
+        if (selfCause) {
+            when(chain[length - 1].getCause()).thenReturn(chain[length - 1]);
+        }
+        for (int i = 0; i < length - 1; i++) {
+            chain[i].initCause(chain[i + 1]);
+        }
+        if (cycleStart >= 0 && !selfCause) {
+            chain[length - 1].initCause(chain[cycleStart]);
+        }
+        Throwable first = chain[0];
+
+        assertThat(ExceptionUtils.getRootCause(first)).isSameAs(chain[length - 1]);
+        assertThat(ExceptionUtils.throwableOfType(first, IOException.class)).isSameAs(selfCause ? null : chain[length - 1]);
+        assertThat(ExceptionUtils.throwableOfType(first, IllegalStateException.class)).isNull();
+        assertThat(ExceptionUtils.throwableOfAnyType(first, IllegalStateException.class, NullPointerException.class)).isNull();
+        assertThat(ExceptionUtils.indexOfType(first, IllegalStateException.class)).isEqualTo(-1);
+        if (!selfCause) {
+            assertThat(ExceptionUtils.indexOfType(first, IOException.class)).isEqualTo(length - 1);
+        }
+    }
+
+    @Test
+    void getRootCause() {
+        assertThat(ExceptionUtils.getRootCause(null)).isNull();
+        IOException ioException = new IOException(JUST_TESTING_MESSAGE);
+        assertThat(ExceptionUtils.getRootCause(ioException)).isSameAs(ioException);
+        assertThat(ExceptionUtils.getRootCause(new IllegalStateException(new RuntimeException(ioException)))).isSameAs(ioException);
+    }
+
+    @Test
+    void stacklessExceptions() {
+        IOException cause = new IOException(JUST_TESTING_MESSAGE);
+        ExceptionUtils.StacklessException exception = ExceptionUtils.stackless(JUST_TESTING_MESSAGE, cause);
+        assertThat(exception).hasMessage(JUST_TESTING_MESSAGE).hasCause(cause);
+        assertThat(exception.getStackTrace()).isEmpty();
+        assertThat(ExceptionUtils.stackless(JUST_TESTING_MESSAGE).getStackTrace()).isEmpty();
+
+        TimeoutException timeoutException = ExceptionUtils.stacklessTimeout(JUST_TESTING_MESSAGE);
+        assertThat(timeoutException).hasMessage(JUST_TESTING_MESSAGE);
+        assertThat(timeoutException.getStackTrace()).isEmpty();
+
+        NumberFormatException numberFormatException = ExceptionUtils.stacklessNumberFormat(JUST_TESTING_MESSAGE);
+        assertThat(numberFormatException).hasMessage(JUST_TESTING_MESSAGE);
+        assertThat(numberFormatException.getStackTrace()).isEmpty();
+
+        // named classes, so the logs show a meaningful type
+        assertThat(timeoutException).isInstanceOf(ExceptionUtils.StacklessTimeoutException.class);
+        assertThat(numberFormatException).isInstanceOf(ExceptionUtils.StacklessNumberFormatException.class);
+    }
+
+    @Test
+    void preallocated() {
+        ExceptionUtils.StacklessException exception = ExceptionUtils.preallocated(JUST_TESTING_MESSAGE);
+        exception.addSuppressed(new IOException(JUST_TESTING_MESSAGE));
+        exception.setStackTrace(new Throwable().getStackTrace());
+        assertThatIllegalStateException().isThrownBy(() -> exception.initCause(new IOException(JUST_TESTING_MESSAGE)));
+
+        // the shared instance is not modified
+        assertThat(exception.getSuppressed()).isEmpty();
+        assertThat(exception.getStackTrace()).isEmpty();
+        assertThat(exception.getCause()).isNull();
+    }
+
+    @Test
+    void compactStackTrace() {
+        String first = null;
+        for (int i = 0; i < 2; i++) {
+            String stackTrace = ExceptionUtils.compactStackTrace(TimeoutException.class, 2);
+            if (first == null) {
+                first = stackTrace;
+            } else {
+                // cached by call site
+                assertThat(stackTrace).isSameAs(first);
+            }
+        }
+        String[] lines = first.split(System.lineSeparator());
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).isEqualTo(TimeoutException.class.getName());
+        assertThat(lines[1]).startsWith("\tat " + ExceptionUtilsTest.class.getName() + ".compactStackTrace(");
+        assertThat(lines[3]).isEqualTo("\t...");
+
+        // another site and type
+        assertThat(ExceptionUtils.compactStackTrace(IOException.class, 1)).isNotEqualTo(first)
+                .startsWith(IOException.class.getName());
+        assertThatIllegalArgumentException().isThrownBy(() -> ExceptionUtils.compactStackTrace(IOException.class, 0));
+    }
+
+    @Test
+    void compactStackTraceOfCallChains() {
+        String[] firsts = new String[2];
+        for (int i = 0; i < firsts.length; i++) {
+            firsts[i] = firstCaller();
+        }
+        String first = firsts[0];
+        String second = secondCaller();
+        // same call site, different callers
+        assertThat(first.split(System.lineSeparator())[1]).isEqualTo(second.split(System.lineSeparator())[1]);
+        assertThat(first.split(System.lineSeparator())[2]).contains("firstCaller");
+        assertThat(second.split(System.lineSeparator())[2]).contains("secondCaller");
+        // cached by call chain
+        assertThat(firsts[1]).isSameAs(first);
+    }
+
+    private static String firstCaller() {
+        return callSite();
+    }
+
+    private static String secondCaller() {
+        return callSite();
+    }
+
+    private static String callSite() {
+        return ExceptionUtils.compactStackTrace(TimeoutException.class, 2);
+    }
+}
@@ -6,13 +6,17 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static io.github.amanzat.util.TestUtils.FILE_NAME;
 import static io.github.amanzat.util.TestUtils.FOLDER;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 class FileUtilsTest {
 
@@ -32,6 +36,51 @@ class FileUtilsTest {
         Files.delete(file);
     }
 
+    @Test
+    void forEachLine(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("file.txt");
+        Files.writeString(file, "line1\nline2\r\nline3");
+
+        List<String> lines = new ArrayList<>();
+        assertThat(FileUtils.forEachLine(file, line -> lines.add(line.toString()))).isTrue();
+        assertThat(lines).containsExactly("line1", "line2", "line3");
+    }
+
+    @Test
+    void mappedLines(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("file.txt");
+        Files.writeString(file, "line1\nline2\r\nline3");
+
+        try (Stream<CharSequence> lines = FileUtils.mappedLines(file)) {
+            assertThat(lines.map(CharSequence::toString)).containsExactly("line1", "line2", "line3");
+        }
+    }
+
+    @Test
+    void lines(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("file.txt");
+        Files.writeString(file, "line1\nline2\r\nline3");
+
+        try (Stream<CharSequence> lines = FileUtils.lines(file, true)) {
+            assertThat(lines.map(CharSequence::toString)).containsExactly("line1", "line2", "line3");
+        }
+    }
+
+    @Test
+    void map(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("file.bin");
+        Files.write(file, new byte[]{1, 2, 3});
+
+        MappedByteBuffer[] buffers = FileUtils.map(file, 2, 10, 4);
+        assertThat(buffers).extracting(MappedByteBuffer::capacity).containsExactly(4, 4, 2);
+        assertThat(buffers[0].get(0)).isEqualTo((byte) 3);
+        buffers[2].put(1, (byte) 9);
+        buffers[2].force();
+        assertThat(Files.size(file)).isEqualTo(12);
+        assertThat(Files.readAllBytes(file)[11]).isEqualTo((byte) 9);
+        assertThatIllegalArgumentException().isThrownBy(() -> FileUtils.map(file, -1, 10, 4));
+    }
+
     @Test
     void ensureDirectoryExists(@TempDir Path tempDir) {
         assertThat(tempDir).exists();
@@ -2,18 +2,32 @@ package io.github.amanzat.util;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 class IOUtilsTest {
@@ -41,4 +55,186 @@ class IOUtilsTest {
             fail("Unexpected exception", e);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void copyFileStreams(@TempDir Path tempDir) throws IOException {
+        Path source = tempDir.resolve("source.txt");
+        Path target = tempDir.resolve("target.txt");
+        Files.writeString(source, longText);
+
+        try (InputStream inputStream = new FileInputStream(source.toFile());
+             FileOutputStream outputStream = new FileOutputStream(target.toFile())) {
+            long count = IOUtils.copy(inputStream, outputStream);
+            assertThat(count).isEqualTo(Files.size(source));
+        }
+        assertThat(target).hasSameTextualContentAs(source);
+    }
+
+    @Test
+    void copyPaths(@TempDir Path tempDir) throws IOException {
+        Path source = tempDir.resolve("source.txt");
+        Path target = tempDir.resolve("target.txt");
+        Files.writeString(source, longText);
+        Files.writeString(target, longText + longText);
+
+        long count = IOUtils.copy(source, target);
+        assertThat(count).isEqualTo(Files.size(source));
+        // the existing target file is truncated
+        assertThat(target).hasSameTextualContentAs(source);
+    }
+
+    @Test
+    void copySamePath(@TempDir Path tempDir) throws IOException {
+        Path source = tempDir.resolve("source.txt");
+        Files.writeString(source, longText);
+
+        assertThat(IOUtils.copy(source, source)).isZero();
+        assertThat(IOUtils.copy(source, tempDir.resolve(".").resolve("source.txt"))).isZero();
+        // the file is not truncated
+        assertThat(source).hasContent(longText);
+    }
+
+    @Test
+    void copySpecialFile(@TempDir Path tempDir) throws IOException {
+        // the special files report a size of 0, their content is only known by reading them
+        Path source = Paths.get("/proc/self/cmdline");
+        assumeTrue(Files.isReadable(source) && Files.size(source) == 0);
+        Path target = tempDir.resolve("target.txt");
+
+        assertThat(IOUtils.copy(source, target)).isPositive().isEqualTo(Files.size(target));
+        try (FileInputStream inputStream = new FileInputStream(source.toFile());
+             FileOutputStream outputStream = new FileOutputStream(target.toFile())) {
+            assertThat(IOUtils.copy(inputStream, outputStream)).isPositive();
+        }
+        assertThat(Files.size(target)).isPositive();
+    }
+
+    @Test
+    void copyNamedPipe(@TempDir Path tempDir) throws Exception {
+        Path fifo = tempDir.resolve("fifo");
+        boolean created;
+        try {
+            created = new ProcessBuilder("mkfifo", fifo.toString()).start().waitFor() == 0;
+        } catch (IOException e) {
+            created = false;
+        }
+        assumeTrue(created);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            try {
+                Files.writeString(fifo, longText);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Path target = tempDir.resolve("target.txt");
+
+        assertThat(IOUtils.copy(fifo, target)).isEqualTo(longText.getBytes(StandardCharsets.UTF_8).length);
+        writer.join();
+        assertThat(target).hasContent(longText);
+    }
+
+    @Test
+    void copyPathToChannel(@TempDir Path tempDir) throws IOException {
+        Path source = tempDir.resolve("source.txt");
+        Files.writeString(source, longText);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        long count = IOUtils.copy(source, Channels.newChannel(outputStream));
+        assertThat(count).isEqualTo(Files.size(source));
+        assertThat(outputStream).hasToString(longText);
+    }
+
+    @Test
+    void copyFileChannelFromPosition(@TempDir Path tempDir) throws IOException {
+        Path source = tempDir.resolve("source.txt");
+        Files.writeString(source, longText);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (FileChannel channel = FileChannel.open(source)) {
+            channel.position(10);
+            long count = IOUtils.copy(channel, Channels.newChannel(outputStream));
+            assertThat(count).isEqualTo(Files.size(source) - 10);
+            assertThat(channel.position()).isEqualTo(channel.size());
+        }
+        assertThat(outputStream).hasToString(longText.substring(10));
+    }
+
+    @Test
+    void copyChannels() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ReadableByteChannel source = Channels.newChannel(IOUtils.toInputStream(longText, StandardCharsets.UTF_8))) {
+            long count = IOUtils.copy(source, Channels.newChannel(outputStream));
+            assertThat(count).isEqualTo(longText.getBytes(StandardCharsets.UTF_8).length);
+        }
+        assertThat(outputStream).hasToString(longText);
+    }
+
+    @Test
+    void copyChannelToFileChannel(@TempDir Path tempDir) throws IOException {
+        Path target = tempDir.resolve("target.txt");
+        try (ReadableByteChannel source = Channels.newChannel(IOUtils.toInputStream(longText, StandardCharsets.UTF_8));
+             FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+            targetChannel.write(ByteBuffer.wrap("header".getBytes(StandardCharsets.UTF_8)));
+            long count = IOUtils.copy(source, targetChannel);
+            assertThat(count).isEqualTo(longText.getBytes(StandardCharsets.UTF_8).length);
+            assertThat(targetChannel.position()).isEqualTo(count + 6);
+        }
+        assertThat(target).hasContent("header" + longText);
+    }
+
+    @Test
+    void copyTruncatedFile(@TempDir Path tempDir) throws IOException {
+        Path source = tempDir.resolve("source.txt");
+        Files.writeString(source, longText.repeat(10));
+        try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ)) {
+            WritableByteChannel truncating = Channels.newChannel(new ByteArrayOutputStream() {
+                @Override
+                public void write(byte[] bytes, int offset, int length) {
+                    try (FileChannel channel = FileChannel.open(source, StandardOpenOption.WRITE)) {
+                        channel.truncate(0);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    super.write(bytes, offset, length);
+                }
+            });
+            assertThatThrownBy(() -> IOUtils.copy(sourceChannel, truncating)).isInstanceOf(EOFException.class);
+        }
+    }
+
+    @Test
+    void copyFileChannelToNonBlockingChannel(@TempDir Path tempDir) throws Exception {
+        Path source = tempDir.resolve("source.txt");
+        String text = longText.repeat(100);
+        Files.writeString(source, text);
+        Pipe pipe = Pipe.open();
+        pipe.sink().configureBlocking(false);
+        CompletableFuture<String> received = CompletableFuture.supplyAsync(() -> {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try (ReadableByteChannel pipeSource = pipe.source()) {
+                IOUtils.copy(pipeSource, Channels.newChannel(outputStream));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return outputStream.toString(StandardCharsets.UTF_8);
+        });
+
+        try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+             WritableByteChannel sink = pipe.sink()) {
+            assertThat(IOUtils.copy(sourceChannel, sink)).isEqualTo(Files.size(source));
+        }
+        assertThat(received.get()).isEqualTo(text);
+    }
+
+    @Test
+    void copyReusesPooledBuffers() throws IOException {
+        // warm up the pool for this thread
+        IOUtils.copy(IOUtils.toInputStream(longText, StandardCharsets.UTF_8), new ByteArrayOutputStream());
+        long hits = IOUtils.BUFFER_POOL.stats().hits();
+        long allocations = IOUtils.BUFFER_POOL.stats().allocations();
+
+        IOUtils.copy(IOUtils.toInputStream(longText, StandardCharsets.UTF_8), new ByteArrayOutputStream());
+        assertThat(IOUtils.BUFFER_POOL.stats().hits()).isEqualTo(hits + 1);
+        assertThat(IOUtils.BUFFER_POOL.stats().allocations()).isEqualTo(allocations);
+    }
+}
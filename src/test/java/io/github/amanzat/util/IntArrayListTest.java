@@ -0,0 +1,68 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class IntArrayListTest {
+
+    @Test
+    void addGetSetRemove() {
+        IntArrayList list = new IntArrayList(0);
+        for (int i = 0; i < 100; i++) {
+            list.add(i * 2);
+        }
+        assertThat(list.size()).isEqualTo(100);
+        assertThat(list.get(10)).isEqualTo(20);
+        assertThat(list.set(10, -1)).isEqualTo(20);
+        assertThat(list.indexOf(-1)).isEqualTo(10);
+        assertThat(list.contains(3)).isFalse();
+        assertThat(list.removeAt(10)).isEqualTo(-1);
+        assertThat(list.get(10)).isEqualTo(22);
+        assertThat(list.size()).isEqualTo(99);
+
+        list.clear();
+        assertThat(list.isEmpty()).isTrue();
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> list.get(0));
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> list.set(0, 1));
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> list.removeAt(0));
+    }
+
+    @Test
+    void bulkOperations() {
+        IntArrayList list = IntArrayList.of(5, 3, 9);
+        list.addAll(1, 7);
+        list.sort();
+        assertThat(list.toArray()).containsExactly(1, 3, 5, 7, 9);
+        assertThat(list.toArray(1, 3)).containsExactly(3, 5);
+        assertThat(list.stream().sum()).isEqualTo(25);
+        assertThat(list).hasToString("[1, 3, 5, 7, 9]");
+
+        List<Integer> visited = new ArrayList<>();
+        list.forEach(visited::add);
+        assertThat(visited).containsExactly(1, 3, 5, 7, 9);
+        assertThat(list.hashCode()).isEqualTo(visited.hashCode());
+
+        PrimitiveIterator.OfInt iterator = list.iterator();
+        int sum = 0;
+        while (iterator.hasNext()) {
+            sum += iterator.nextInt();
+        }
+        assertThat(sum).isEqualTo(25);
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> list.toArray(3, 6));
+    }
+
+    @Test
+    void equality() {
+        IntArrayList list = new IntArrayList(100);
+        list.addAll(1, 2);
+        assertThat(list).isEqualTo(IntArrayList.of(1, 2)).isNotEqualTo(IntArrayList.of(1, 2, 3));
+        assertThatIllegalArgumentException().isThrownBy(() -> new IntArrayList(-1));
+    }
+}
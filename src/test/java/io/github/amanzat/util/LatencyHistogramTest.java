@@ -0,0 +1,78 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 10})
+    void buckets(int precisionBits) {
+        LatencyHistogram histogram = new LatencyHistogram(precisionBits);
+        double maxError = 1.0 / (1 << precisionBits);
+        int previous = -1;
+        for (long value : new long[]{0, 1, 2, 31, 32, 33, 63, 64, 1000, 123_456_789, Long.MAX_VALUE / 3, Long.MAX_VALUE}) {
+            int index = histogram.indexOf(value);
+            assertThat(index).isGreaterThanOrEqualTo(previous);
+            previous = index;
+            long highest = histogram.highestValueOf(index);
+            assertThat(highest).isGreaterThanOrEqualTo(value);
+            assertThat(highest - value).isLessThanOrEqualTo((long) (value * maxError));
+            assertThat(histogram.indexOf(highest)).isEqualTo(index);
+        }
+        assertThat(histogram.highestValueOf(histogram.indexOf(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.snapshot().percentile(99)).isZero();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        histogram.record(-5);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(1001);
+        assertThat(snapshot.max()).isEqualTo(1_000_000);
+        assertThat(snapshot.mean()).isCloseTo(500_500_000.0 / 1001, within(0.001));
+        assertThat(snapshot.percentile(0)).isZero();
+        assertThat(snapshot.percentile(50)).isCloseTo(500_000, within(500_000L / 32));
+        assertThat(snapshot.percentile(99)).isCloseTo(990_000, within(990_000L / 32));
+        assertThat(snapshot.percentile(100)).isEqualTo(1_000_000);
+        assertThat(snapshot.toString()).startsWith("count=1001, ");
+        assertThatIllegalArgumentException().isThrownBy(() -> snapshot.percentile(101));
+
+        histogram.reset();
+        assertThat(histogram.snapshot().count()).isZero();
+        assertThat(histogram.snapshot().max()).isZero();
+    }
+
+    @Test
+    void concurrentRecords() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        CompletableFuture.allOf(IntStream.range(0, 4)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        histogram.record(ThreadLocalRandom.current().nextLong(1_000_000));
+                    }
+                }))
+                .toArray(CompletableFuture[]::new)).join();
+        assertThat(histogram.snapshot().count()).isEqualTo(40_000);
+    }
+
+    @Test
+    void invalidPrecision() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new LatencyHistogram(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> new LatencyHistogram(11));
+    }
+}
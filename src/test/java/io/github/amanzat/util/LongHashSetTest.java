@@ -0,0 +1,104 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class LongHashSetTest {
+
+    @Test
+    void addContainsRemove() {
+        LongHashSet set = new LongHashSet();
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.add(0)).isTrue();
+        assertThat(set.add(0)).isFalse();
+        assertThat(set.add(Long.MIN_VALUE)).isTrue();
+        assertThat(set.add(-1)).isTrue();
+        assertThat(set.size()).isEqualTo(3);
+        assertThat(set.contains(0)).isTrue();
+        assertThat(set.contains(Long.MIN_VALUE)).isTrue();
+        assertThat(set.contains(1)).isFalse();
+
+        assertThat(set.remove(0)).isTrue();
+        assertThat(set.remove(0)).isFalse();
+        assertThat(set.remove(1)).isFalse();
+        assertThat(set.remove(-1)).isTrue();
+        assertThat(set.toArray()).containsExactly(Long.MIN_VALUE);
+
+        set.clear();
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.contains(Long.MIN_VALUE)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 16, 1000})
+    void sameAsHashSet(int expectedSize) {
+        LongHashSet set = new LongHashSet(expectedSize);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(expectedSize);
+        for (int i = 0; i < 20_000; i++) {
+            // a small range of values, including sequential ones, to have collisions and removals
+            long value = random.nextBoolean() ? random.nextInt(500) - 50 : (long) random.nextInt(100) << 32;
+            if (random.nextInt(3) == 0) {
+                assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+            } else {
+                assertThat(set.add(value)).isEqualTo(expected.add(value));
+            }
+            assertThat(set.size()).isEqualTo(expected.size());
+        }
+        for (long value = -100; value < 600; value++) {
+            assertThat(set.contains(value)).isEqualTo(expected.contains(value));
+        }
+        assertThat(set.stream().boxed().collect(Collectors.toSet())).isEqualTo(expected);
+        assertThat(set.hashCode()).isEqualTo(expected.hashCode());
+    }
+
+    @Test
+    void iteration() {
+        LongHashSet set = new LongHashSet(2);
+        set.addAll(5, 0, -7, 42);
+
+        Set<Long> values = new HashSet<>();
+        PrimitiveIterator.OfLong iterator = set.iterator();
+        while (iterator.hasNext()) {
+            values.add(iterator.nextLong());
+        }
+        assertThat(values).containsExactlyInAnyOrder(5L, 0L, -7L, 42L);
+        assertThatExceptionOfType(java.util.NoSuchElementException.class).isThrownBy(iterator::nextLong);
+
+        Set<Long> visited = new HashSet<>();
+        set.forEach(visited::add);
+        assertThat(visited).isEqualTo(values);
+        assertThat(set.toArray()).containsExactlyInAnyOrder(5, 0, -7, 42);
+        assertThat(set.toString()).startsWith("[0, ").hasSize("[0, 5, -7, 42]".length());
+    }
+
+    @Test
+    void equality() {
+        LongHashSet first = new LongHashSet();
+        first.addAll(1, 2, 3, 0);
+        LongHashSet second = new LongHashSet(1000);
+        second.addAll(0, 3, 2, 1);
+        assertThat(first).isEqualTo(second).hasSameHashCodeAs(second);
+
+        second.remove(0);
+        second.add(4);
+        assertThat(first).isNotEqualTo(second);
+    }
+
+    @Test
+    void invalidExpectedSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new LongHashSet(-1));
+        assertThatIllegalArgumentException().isThrownBy(() -> new LongHashSet(Integer.MAX_VALUE));
+    }
+}
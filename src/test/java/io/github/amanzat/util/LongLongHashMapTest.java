@@ -0,0 +1,99 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongLongHashMapTest {
+
+    @Test
+    void putGetRemove() {
+        LongLongHashMap map = new LongLongHashMap(4, -1);
+        assertThat(map.getNoEntryValue()).isEqualTo(-1);
+        assertThat(map.get(7)).isEqualTo(-1);
+        assertThat(map.put(7, 70)).isEqualTo(-1);
+        assertThat(map.put(7, 71)).isEqualTo(70);
+        assertThat(map.put(0, 100)).isEqualTo(-1);
+        assertThat(map.put(0, 101)).isEqualTo(100);
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.get(7)).isEqualTo(71);
+        assertThat(map.get(0)).isEqualTo(101);
+        assertThat(map.getOrDefault(8, 5)).isEqualTo(5);
+        assertThat(map.containsKey(0)).isTrue();
+        assertThat(map.containsKey(8)).isFalse();
+
+        assertThat(map.remove(0)).isEqualTo(101);
+        assertThat(map.remove(0)).isEqualTo(-1);
+        assertThat(map.remove(7)).isEqualTo(71);
+        assertThat(map.isEmpty()).isTrue();
+    }
+
+    @Test
+    void addTo() {
+        LongLongHashMap map = new LongLongHashMap(16, -1);
+        assertThat(map.addTo(3, 5)).isEqualTo(5);
+        assertThat(map.addTo(3, 5)).isEqualTo(10);
+        assertThat(map.addTo(0, -2)).isEqualTo(-2);
+        assertThat(map.addTo(0, -2)).isEqualTo(-4);
+        assertThat(map).hasToString("{0=-4, 3=10}");
+    }
+
+    @Test
+    void sameAsHashMap() {
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(1000) - 100;
+            switch (random.nextInt(4)) {
+                case 0 -> assertThat(map.remove(key)).isEqualTo(orZero(expected.remove(key)));
+                case 1 -> assertThat(map.addTo(key, i)).isEqualTo(expected.merge(key, (long) i, Long::sum));
+                default -> assertThat(map.put(key, i)).isEqualTo(orZero(expected.put(key, (long) i)));
+            }
+            assertThat(map.size()).isEqualTo(expected.size());
+        }
+        for (long key = -200; key < 1000; key++) {
+            assertThat(map.get(key)).isEqualTo(orZero(expected.get(key)));
+            assertThat(map.containsKey(key)).isEqualTo(expected.containsKey(key));
+        }
+
+        Map<Long, Long> entries = new HashMap<>();
+        map.forEach(entries::put);
+        assertThat(entries).isEqualTo(expected);
+        assertThat(map.hashCode()).isEqualTo(expected.hashCode());
+
+        PrimitiveIterator.OfLong keys = map.keyIterator();
+        int count = 0;
+        while (keys.hasNext()) {
+            assertThat(expected).containsKey(keys.nextLong());
+            count++;
+        }
+        assertThat(count).isEqualTo(expected.size());
+    }
+
+    @Test
+    void equality() {
+        LongLongHashMap first = new LongLongHashMap();
+        first.put(0, 1);
+        first.put(2, 3);
+        LongLongHashMap second = new LongLongHashMap(100, 0);
+        second.put(2, 3);
+        second.put(0, 1);
+        assertThat(first).isEqualTo(second).hasSameHashCodeAs(second);
+
+        second.put(2, 4);
+        assertThat(first).isNotEqualTo(second);
+        second.clear();
+        assertThat(second.isEmpty()).isTrue();
+        assertThat(second.get(2)).isZero();
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class MappedLineReaderTest {
+
+    private static final String CONTENT = "first line\nsecond\r\nthird\r\rfifth ăîșț €\n\nlast line without terminator";
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5, 7, 16, 1024, MappedLineReader.DEFAULT_WINDOW_SIZE})
+    void readLines(int windowSize, @TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("file.txt");
+        Files.writeString(file, CONTENT);
+
+        List<String> lines = new ArrayList<>();
+        try (MappedLineReader reader = MappedLineReader.open(file, windowSize)) {
+            assertThat(reader.forEachLine(line -> lines.add(line.toString()))).isTrue();
+        }
+        assertThat(lines).isEqualTo(expectedLines(CONTENT));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "\n", "\r\n", "a", "a\n", "a\r", "\n\n", "€\r\n€"})
+    void readEdgeCases(String content, @TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("file.txt");
+        Files.writeString(file, content);
+
+        try (Stream<CharSequence> lines = MappedLineReader.open(file, 2).lines()) {
+            assertThat(lines.map(CharSequence::toString)).containsExactlyElementsOf(expectedLines(content));
+        }
+    }
+
+    @Test
+    void lineView(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("file.txt");
+        Files.writeString(file, "ascii line\nșir UTF-8\n");
+
+        try (MappedLineReader reader = MappedLineReader.open(file)) {
+            MappedLineReader.Line line = new MappedLineReader.Line();
+            assertThat(line).isEmpty();
+
+            assertThat(reader.readLine(line)).isTrue();
+            assertThat(line.isAscii()).isTrue();
+            assertThat(line.length()).isEqualTo(10);
+            assertThat(line.byteLength()).isEqualTo(10);
+            assertThat(line.charAt(0)).isEqualTo('a');
+            assertThat(line.byteAt(1)).isEqualTo((byte) 's');
+            assertThat(line.subSequence(6, 10)).hasToString("line");
+            assertThat(line.isEmpty()).isFalse();
+
+            assertThat(reader.readLine(line)).isTrue();
+            assertThat(line.isAscii()).isFalse();
+            assertThat(line.length()).isEqualTo(9);
+            assertThat(line.byteLength()).isEqualTo(10);
+            assertThat(line.charAt(0)).isEqualTo('ș');
+            assertThat(line.subSequence(0, 3)).hasToString("șir");
+            byte[] bytes = new byte[line.byteLength()];
+            line.copyBytes(bytes, 0);
+            assertThat(new String(bytes, StandardCharsets.UTF_8)).isEqualTo("șir UTF-8");
+
+            assertThat(reader.readLine(line)).isFalse();
+        }
+    }
+
+    @Test
+    void forEachLineStop(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("file.txt");
+        Files.writeString(file, CONTENT);
+
+        List<String> lines = new ArrayList<>();
+        try (MappedLineReader reader = MappedLineReader.open(file)) {
+            assertThat(reader.forEachLine(line -> lines.add(line.toString()) && lines.size() < 2)).isFalse();
+        }
+        assertThat(lines).containsExactly("first line", "second");
+    }
+
+    @Test
+    void streamLinesRemainValid(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("file.txt");
+        Files.writeString(file, CONTENT);
+
+        List<CharSequence> lines;
+        try (Stream<CharSequence> stream = MappedLineReader.open(file, 4).lines()) {
+            lines = stream.collect(Collectors.toList());
+        }
+        assertThat(lines).map(CharSequence::toString).isEqualTo(expectedLines(CONTENT));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 3, 10, 100, MappedLineReader.DEFAULT_MIN_SPLIT_SIZE})
+    void parallelLines(long minSplitSize, @TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("file.txt");
+        String content = String.join("", Collections.nCopies(50, CONTENT + "\r\n"));
+        Files.writeString(file, content);
+
+        try (Stream<CharSequence> lines = MappedLineReader.lines(file, true, minSplitSize)) {
+            assertThat(lines.isParallel()).isTrue();
+            assertThat(lines.map(CharSequence::toString).collect(Collectors.toList())).isEqualTo(expectedLines(content));
+        }
+    }
+
+    @Test
+    void splitAtLineBoundaries(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("file.txt");
+        Files.writeString(file, "aaaa\r\nbbbb\rcccc\ndddd");
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            Spliterator<CharSequence> suffix = new MappedLineReader.RangeSpliterator(channel, 0, channel.size(), 1);
+            Spliterator<CharSequence> prefix = suffix.trySplit();
+            assertThat(prefix).isNotNull();
+            assertThat(StreamSupport.stream(prefix, false).map(CharSequence::toString)).containsExactly("aaaa", "bbbb");
+            assertThat(StreamSupport.stream(suffix, false).map(CharSequence::toString)).containsExactly("cccc", "dddd");
+            // can't split after the traversal started
+            assertThat(suffix.trySplit()).isNull();
+        }
+    }
+
+    @Test
+    void invalidWindowSize(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("file.txt");
+        Files.writeString(file, CONTENT);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> MappedLineReader.open(file, 0));
+    }
+
+    private static List<String> expectedLines(String content) throws IOException {
+        return new BufferedReader(new StringReader(content)).lines().collect(Collectors.toList());
+    }
+}
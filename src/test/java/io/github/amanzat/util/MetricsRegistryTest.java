@@ -0,0 +1,60 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsRegistryTest {
+
+    @Test
+    void metrics() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter counter = registry.counter("requests");
+        assertThat(registry.counter("requests")).isSameAs(counter);
+        counter.increment();
+        counter.add(2);
+        registry.histogram("latency").record(100);
+        assertThat(registry.histogram("latency")).isSameAs(registry.histogram("latency"));
+
+        MetricsRegistry.Snapshot snapshot = registry.snapshot();
+        assertThat(snapshot.counters()).containsExactlyEntriesOf(java.util.Map.of("requests", 3L));
+        assertThat(snapshot.histograms()).containsOnlyKeys("latency");
+        assertThat(snapshot.histograms().get("latency").max()).isEqualTo(100);
+
+        assertThat(counter.sumThenReset()).isEqualTo(3);
+        assertThat(counter).hasToString("0");
+    }
+
+    @Test
+    void globalMetrics() throws IOException {
+        MetricsRegistry registry = MetricsRegistry.global();
+        long bytes = registry.counter(IOUtils.COPY_BYTES_METRIC).sum();
+        long copies = registry.histogram(IOUtils.COPY_TIME_METRIC).snapshot().count();
+        IOUtils.copy(new ByteArrayInputStream(new byte[100]), new ByteArrayOutputStream());
+        // the other tests may copy concurrently
+        assertThat(registry.counter(IOUtils.COPY_BYTES_METRIC).sum()).isGreaterThanOrEqualTo(bytes + 100);
+        assertThat(registry.histogram(IOUtils.COPY_TIME_METRIC).snapshot().count()).isGreaterThan(copies);
+
+        long waits = registry.histogram(ThreadUtils.WAIT_TIME_METRIC).snapshot().count();
+        ThreadUtils.safeAwait(new CountDownLatch(1), Duration.ofMillis(1));
+        LatencyHistogram.Snapshot snapshot = registry.histogram(ThreadUtils.WAIT_TIME_METRIC).snapshot();
+        assertThat(snapshot.count()).isGreaterThan(waits);
+        assertThat(snapshot.max()).isGreaterThanOrEqualTo(Duration.ofMillis(1).toNanos());
+
+        // the calls which don't wait are not recorded
+        waits = snapshot.count();
+        ThreadUtils.safeAwait(new CountDownLatch(0));
+        ThreadUtils.safeAwait(new CountDownLatch(0), Duration.ofMillis(1));
+        ThreadUtils.safeAcquire(new Semaphore(1));
+        ThreadUtils.safeAcquire(new Semaphore(2), 2);
+        ThreadUtils.safeTryAcquire(new Semaphore(1), 1, Duration.ofMillis(1));
+        assertThat(registry.histogram(ThreadUtils.WAIT_TIME_METRIC).snapshot().count()).isEqualTo(waits);
+    }
+}
@@ -2,13 +2,16 @@ package io.github.amanzat.util;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 
 import static io.github.amanzat.util.TestUtils.INVALID_STR;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 class NumberUtilsTest {
 
@@ -20,8 +23,99 @@ class NumberUtilsTest {
 
     @ParameterizedTest
     @NullSource
-    @ValueSource(strings = {"", "  ", "      ", "A", "b", "!", INVALID_STR})
+    @ValueSource(strings = {"", "  ", "      ", "A", "b", "!", INVALID_STR, ".", "-", "+.", "1e", "1e+", "1.2.3", "1e2.5",
+            " 1", "1 ", "--1", "0x10", "1e2147483648", "NaN", "Infinity"})
     void safeParseDecimal(String input) {
         assertThat(NumberUtils.safeParseDecimal(input)).isNull();
+        assertThat(NumberUtils.isDecimal(input)).isFalse();
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-0", "+5", "0.00", "-0.00", ".5", "5.", "-.5", "123.45", "1e3", "1E+3", "1.5e-3", "-12.34E5",
+            "9223372036854775807", "-9223372036854775808", "9223372036854775808", "123456789012345678901234567890.123",
+            "0.000000000000000000000000001", "1e-2147483647", "١٢"})
+    void safeParseDecimalSameAsBigDecimal(String input) {
+        BigDecimal expected = new BigDecimal(input);
+        BigDecimal actual = NumberUtils.safeParseDecimal(input);
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.scale()).isEqualTo(expected.scale());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 0",
+            "-0, 0",
+            "+42, 42",
+            "-42, -42",
+            "0012, 12",
+            "9223372036854775807, 9223372036854775807",
+            "-9223372036854775808, -9223372036854775808"
+    })
+    void parseLong(String input, long expected) {
+        assertThat(NumberUtils.parseLong(input, -1)).isEqualTo(expected);
+        byte[] bytes = ("xx" + input + "yy").getBytes(StandardCharsets.US_ASCII);
+        assertThat(NumberUtils.parseLong(bytes, 2, input.length(), -1)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", "-", "1.0", "1e3", "9223372036854775808", "-9223372036854775809", "12a", INVALID_STR})
+    void parseLongInvalid(String input) {
+        assertThat(NumberUtils.parseLong(input, -1)).isEqualTo(-1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-0", "1", "-1.5", "0.1", "0.3", "123.456", "3.141592653589793", "1e22", "1e23", "1.7976931348623157E308",
+            "4.9E-324", "1e400", "-1e400", "1e-400", "9007199254740993", "123456789012345678901234567890", "0.1e-10", ".5", "5."})
+    void parseDouble(String input) {
+        double expected = Double.parseDouble(input);
+        assertThat(NumberUtils.parseDouble(input, Double.NaN)).isEqualTo(expected);
+        byte[] bytes = (input + ";").getBytes(StandardCharsets.US_ASCII);
+        assertThat(NumberUtils.parseDouble(bytes, 0, input.length(), Double.NaN)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", ".", "1d", "1f", "NaN", "Infinity", "0x1p3", " 1", INVALID_STR})
+    void parseDoubleInvalid(String input) {
+        assertThat(NumberUtils.parseDouble(input, Double.NaN)).isNaN();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "12.5, 2, 1250",
+            "-12.5, 2, -1250",
+            "12.50, 1, 125",
+            "12, 0, 12",
+            "1e2, 2, 10000",
+            "12.345, 3, 12345",
+            "0.00000000000000000000, 0, 0",
+            "0, 30, 0",
+            "92233720368547758.07, 2, 9223372036854775807"
+    })
+    void parseScaled(String input, int scale, long expected) {
+        assertThat(NumberUtils.parseScaled(input, scale, Long.MIN_VALUE)).isEqualTo(expected);
+        byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+        assertThat(NumberUtils.parseScaled(bytes, 0, bytes.length, scale, Long.MIN_VALUE)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "12.345, 2",
+            "92233720368547758.08, 2",
+            "1, 19",
+            "1e-30, 0",
+            "abc, 2"
+    })
+    void parseScaledInvalid(String input, int scale) {
+        assertThat(NumberUtils.parseScaled(input, scale, Long.MIN_VALUE)).isEqualTo(Long.MIN_VALUE);
+    }
+
+    @Test
+    void invalidRange() {
+        byte[] bytes = new byte[4];
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> NumberUtils.parseLong(bytes, 2, 3, 0));
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> NumberUtils.parseDouble(bytes, -1, 1, 0));
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> NumberUtils.parseScaled(bytes, 0, 5, 2, 0));
+    }
+}
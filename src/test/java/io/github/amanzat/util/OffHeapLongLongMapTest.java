@@ -0,0 +1,156 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class OffHeapLongLongMapTest {
+
+    @Test
+    void putGetRemove() {
+        try (OffHeapLongLongMap map = OffHeapLongLongMap.create(10, -1)) {
+            assertThat(map.getNoEntryValue()).isEqualTo(-1);
+            assertThat(map.get(5)).isEqualTo(-1);
+            assertThat(map.put(5, 50)).isEqualTo(-1);
+            assertThat(map.put(5, 51)).isEqualTo(50);
+            assertThat(map.put(0, 7)).isEqualTo(-1);
+            assertThat(map.addTo(0, 1)).isEqualTo(8);
+            assertThat(map.addTo(6, 2)).isEqualTo(2);
+            assertThat(map.size()).isEqualTo(3);
+            assertThat(map.containsKey(6)).isTrue();
+            assertThat(map.remove(5)).isEqualTo(51);
+            assertThat(map.remove(5)).isEqualTo(-1);
+            assertThat(map.remove(0)).isEqualTo(8);
+            assertThat(map.containsKey(0)).isFalse();
+
+            map.clear();
+            assertThat(map.isEmpty()).isTrue();
+            assertThat(map.get(6)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void sameAsHashMap() {
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        try (OffHeapLongLongMap map = OffHeapLongLongMap.create(2000, 0)) {
+            for (int i = 0; i < 20_000; i++) {
+                long key = random.nextInt(1500) - 100;
+                switch (random.nextInt(3)) {
+                    case 0 -> assertThat(map.remove(key)).isEqualTo(orZero(expected.remove(key)));
+                    case 1 -> assertThat(map.addTo(key, i)).isEqualTo(expected.merge(key, (long) i, Long::sum));
+                    default -> assertThat(map.put(key, i)).isEqualTo(orZero(expected.put(key, (long) i)));
+                }
+            }
+            assertThat(map.size()).isEqualTo(expected.size());
+            for (long key = -200; key < 1500; key++) {
+                assertThat(map.get(key)).isEqualTo(orZero(expected.get(key)));
+            }
+            Map<Long, Long> entries = new HashMap<>();
+            map.forEach(entries::put);
+            assertThat(entries).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void fullMap() {
+        try (OffHeapLongLongMap map = OffHeapLongLongMap.create(2, 0)) {
+            int maxSize = map.maxSize();
+            for (int i = 1; i <= maxSize; i++) {
+                map.put(i, i);
+            }
+            // the key 0 and the existing keys can still be stored
+            map.put(0, 1);
+            map.put(1, 2);
+            assertThatIllegalStateException().isThrownBy(() -> map.put(maxSize + 1, 1));
+            assertThat(map.size()).isEqualTo(maxSize + 1);
+        }
+    }
+
+    @Test
+    void closedMap() {
+        OffHeapLongLongMap map = OffHeapLongLongMap.create(10, 0);
+        map.put(1, 2);
+        map.close();
+        map.close();
+        assertThatIllegalStateException().isThrownBy(() -> map.get(1));
+        assertThatIllegalStateException().isThrownBy(() -> map.put(1, 1));
+        assertThatIllegalStateException().isThrownBy(map::force);
+    }
+
+    @Test
+    void closeInForEach(@TempDir Path tempDir) throws IOException {
+        OffHeapLongLongMap withZeroKey = OffHeapLongLongMap.create(100, 0);
+        withZeroKey.put(0, 1);
+        for (OffHeapLongLongMap map : Arrays.asList(withZeroKey, OffHeapLongLongMap.create(100, 0),
+                OffHeapLongLongMap.open(tempDir.resolve("map.bin"), 100, 0))) {
+            for (long key = 1; key <= 10; key++) {
+                map.put(key, key);
+            }
+            int[] visited = new int[1];
+            // the iteration stops instead of reading the released memory
+            assertThatIllegalStateException().isThrownBy(() -> map.forEach((key, value) -> {
+                visited[0]++;
+                map.close();
+            }));
+            assertThat(visited[0]).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void persistence(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("map.bin");
+        try (OffHeapLongLongMap map = OffHeapLongLongMap.open(file, 100, -1)) {
+            for (long key = 0; key < 100; key++) {
+                map.put(key * 31, key);
+            }
+            map.remove(31);
+        }
+        assertThat(Files.size(file)).isEqualTo(OffHeapLongLongMap.HEADER_SIZE + 256 * 16);
+
+        // the expected size and the no entry value of the existing map are kept
+        try (OffHeapLongLongMap map = OffHeapLongLongMap.open(file, 1, 0)) {
+            assertThat(map.size()).isEqualTo(99);
+            assertThat(map.getNoEntryValue()).isEqualTo(-1);
+            assertThat(map.get(0)).isZero();
+            assertThat(map.get(31)).isEqualTo(-1);
+            assertThat(map.get(99 * 31)).isEqualTo(99);
+            map.put(1, 1);
+            map.force();
+        }
+        try (OffHeapLongLongMap map = OffHeapLongLongMap.open(file, 1, 0)) {
+            assertThat(map.size()).isEqualTo(100);
+            assertThat(map.get(1)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void invalidFiles(@TempDir Path tempDir) throws IOException {
+        Path small = Files.write(tempDir.resolve("small.bin"), new byte[10]);
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> OffHeapLongLongMap.open(small, 10, 0));
+
+        Path invalid = Files.write(tempDir.resolve("invalid.bin"), new byte[OffHeapLongLongMap.HEADER_SIZE]);
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> OffHeapLongLongMap.open(invalid, 10, 0));
+
+        Path truncated = tempDir.resolve("truncated.bin");
+        OffHeapLongLongMap.open(truncated, 10, 0).close();
+        byte[] content = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(content, content.length - 16));
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> OffHeapLongLongMap.open(truncated, 10, 0));
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RateLimiterTest {
+
+    private static final long MILLI = Duration.ofMillis(1).toNanos();
+
+    @Test
+    void burstAndRefill() {
+        AtomicLong ticker = new AtomicLong();
+        RateLimiter limiter = RateLimiter.builder().permitsPerSecond(1000).burst(3).ticker(ticker::get).build();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire(2)).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        ticker.addAndGet(MILLI);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        // an idle bucket refills up to the burst only
+        ticker.addAndGet(100 * MILLI);
+        assertThat(limiter.tryAcquire(3)).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.stats()).isEqualTo(new RateLimiter.Stats(4, 3, 0));
+    }
+
+    @Test
+    void timedAcquire() {
+        RateLimiter limiter = RateLimiter.builder().permitsPerSecond(200).burst(1).build();
+        assertThat(limiter.tryAcquire(1, Duration.ZERO)).isTrue();
+        // the next permit is available in 5 ms
+        assertThat(limiter.tryAcquire(1, Duration.ofMillis(1))).isFalse();
+        long start = System.nanoTime();
+        assertThat(limiter.tryAcquire(1, Duration.ofSeconds(1))).isTrue();
+        assertThat(limiter.safeAcquire(1)).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(5 * MILLI);
+        assertThat(limiter.stats().acquired()).isEqualTo(3);
+        assertThat(limiter.stats().rejected()).isEqualTo(1);
+        assertThat(limiter.stats().totalWaitNanos()).isPositive();
+    }
+
+    @Test
+    void interrupted() {
+        RateLimiter limiter = RateLimiter.builder().permitsPerSecond(1).burst(1).build();
+        assertThat(limiter.tryAcquire()).isTrue();
+        Thread.currentThread().interrupt();
+        assertThat(limiter.safeAcquire(1)).isFalse();
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> RateLimiter.builder().permitsPerSecond(0).burst(1).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> RateLimiter.builder().permitsPerSecond(1).burst(0).build());
+        RateLimiter limiter = RateLimiter.builder().permitsPerSecond(1).burst(2).build();
+        assertThatIllegalArgumentException().isThrownBy(() -> limiter.tryAcquire(3));
+        assertThatIllegalArgumentException().isThrownBy(() -> limiter.tryAcquire(0));
+    }
+}
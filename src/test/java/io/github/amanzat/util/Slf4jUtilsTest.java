@@ -4,8 +4,19 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.event.Level;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 class Slf4jUtilsTest {
 
@@ -30,4 +41,91 @@ class Slf4jUtilsTest {
         Slf4jUtils.log(logger, Level.ERROR, format, args);
         verify(logger).error(format, args);
     }
-}
\ No newline at end of file
+
+    @Test
+    void logFixedArity() {
+        Logger logger = mock(Logger.class);
+        when(logger.isEnabledForLevel(Level.INFO)).thenReturn(true);
+        when(logger.isEnabledForLevel(Level.WARN)).thenReturn(true);
+
+        Slf4jUtils.log(logger, Level.INFO, "message");
+        verify(logger).info("message");
+        Slf4jUtils.log(logger, Level.WARN, "one {}", 1);
+        verify(logger).warn("one {}", 1);
+        Slf4jUtils.log(logger, Level.INFO, "two {} {}", 1, 2);
+        verify(logger).info("two {} {}", 1, 2);
+        Slf4jUtils.log(logger, Level.WARN, "three {} {} {}", 1, 2, 3);
+        verify(logger).warn("three {} {} {}", 1, 2, 3);
+
+        // disabled level
+        Slf4jUtils.log(logger, Level.DEBUG, "message");
+        Slf4jUtils.log(logger, Level.DEBUG, "one {}", 1);
+        Slf4jUtils.log(logger, Level.DEBUG, "two {} {}", 1, 2);
+        Slf4jUtils.log(logger, Level.DEBUG, "three {} {} {}", 1, 2, 3);
+        verify(logger, never()).debug(anyString());
+        verify(logger, never()).debug(anyString(), any(Object.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void logLazy() {
+        Logger logger = mock(Logger.class);
+        when(logger.isEnabledForLevel(Level.ERROR)).thenReturn(true);
+
+        Slf4jUtils.logLazy(logger, Level.ERROR, "one {}", () -> 1);
+        verify(logger).error("one {}", 1);
+        Slf4jUtils.logLazy(logger, Level.ERROR, "two {} {}", () -> 1, () -> 2);
+        verify(logger).error("two {} {}", 1, 2);
+        Slf4jUtils.logLazy(logger, Level.ERROR, "three {} {} {}", () -> 1, () -> 2, () -> 3);
+        verify(logger).error("three {} {} {}", 1, 2, 3);
+
+        // the suppliers are not called when the level is disabled
+        Supplier<Object> supplier = mock(Supplier.class);
+        Slf4jUtils.logLazy(logger, Level.TRACE, "one {}", supplier);
+        Slf4jUtils.logLazy(logger, Level.TRACE, "two {} {}", supplier, supplier);
+        Slf4jUtils.logLazy(logger, Level.TRACE, "three {} {} {}", supplier, supplier, supplier);
+        verifyNoMoreInteractions(supplier);
+    }
+
+    @Test
+    void logRateLimited() {
+        Logger logger = mock(Logger.class);
+        when(logger.getName()).thenReturn("rateLimited");
+        when(logger.isEnabledForLevel(Level.WARN)).thenReturn(true);
+
+        for (int i = 0; i < Slf4jUtils.RATE_LIMITED_BURST + 5; i++) {
+            Slf4jUtils.logRateLimited(logger, Level.WARN, "invalid {}", "value");
+            Slf4jUtils.logRateLimited(logger, Level.WARN, "invalid {} {}", "value", 1);
+            Slf4jUtils.logRateLimited(logger, Level.WARN, "invalid {} {} {}", "value", 1, 2);
+            Slf4jUtils.logRateLimited(logger, Level.DEBUG, "disabled {}", "value");
+        }
+        verify(logger, times(Slf4jUtils.RATE_LIMITED_BURST)).warn("invalid {}", "value");
+        verify(logger, times(Slf4jUtils.RATE_LIMITED_BURST)).warn("invalid {} {}", "value", 1);
+        verify(logger, times(Slf4jUtils.RATE_LIMITED_BURST)).warn("invalid {} {} {}", "value", 1, 2);
+        verify(logger, never()).debug(anyString(), any(Object.class));
+    }
+
+    @Test
+    void rateLimitedLogSummary() {
+        Logger logger = mock(Logger.class);
+        when(logger.isEnabledForLevel(Level.INFO)).thenReturn(true);
+        AtomicLong ticker = new AtomicLong();
+        Slf4jUtils.RateLimitedLog log = new Slf4jUtils.RateLimitedLog(logger, "format", 1, 2, ticker::get);
+
+        assertTrue(log.tryAcquire(Level.INFO));
+        assertTrue(log.tryAcquire(Level.INFO));
+        assertFalse(log.tryAcquire(Level.INFO));
+        assertFalse(log.tryAcquire(Level.INFO));
+        verifyNoMoreInteractions(logger);
+
+        ticker.addAndGet(1_000_000_000L);
+        assertTrue(log.tryAcquire(Level.INFO));
+        verify(logger).info("Suppressed {} messages similar to: {}", 2L, "format");
+        assertFalse(log.tryAcquire(Level.INFO));
+
+        // the periodic summary, without a next message
+        log.logSuppressedSummary();
+        log.logSuppressedSummary();
+        verify(logger).info("Suppressed {} messages similar to: {}", 1L, "format");
+    }
+}
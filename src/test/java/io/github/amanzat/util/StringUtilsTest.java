@@ -4,6 +4,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
 import static io.github.amanzat.util.StringUtils.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -69,6 +73,57 @@ class StringUtilsTest {
         assertThat(StringUtils.toLowerCase(str)).isEqualTo(expected);
     }
 
+    @ParameterizedTest
+    @CsvSource({
+            "content-type, CONTENT-TYPE, content-type",
+            "Content-Type, CONTENT-TYPE, content-type",
+            "X-Ärger-1, X-ÄRGER-1, x-Ärger-1",
+            "istanbul, ISTANBUL, istanbul",
+            "'', '', ''"
+    })
+    void asciiCase(String str, String upper, String lower) {
+        assertThat(StringUtils.toAsciiUpperCase(str)).isEqualTo(upper);
+        assertThat(StringUtils.toAsciiLowerCase(str)).isEqualTo(lower);
+
+        char[] chars = str.toCharArray();
+        StringUtils.toAsciiUpperCase(chars, 0, chars.length);
+        assertThat(chars).containsExactly(upper.toCharArray());
+        StringUtils.toAsciiLowerCase(chars, 0, chars.length);
+        assertThat(chars).containsExactly(lower.toCharArray());
+
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        StringUtils.toAsciiUpperCase(bytes, 0, bytes.length);
+        assertThat(new String(bytes, StandardCharsets.UTF_8)).isEqualTo(upper);
+        StringUtils.toAsciiLowerCase(bytes, 0, bytes.length);
+        assertThat(new String(bytes, StandardCharsets.UTF_8)).isEqualTo(lower);
+
+        assertThat(StringUtils.equalsIgnoreAsciiCase(upper, lower)).isTrue();
+        assertThat(StringUtils.hashCodeIgnoreAsciiCase(upper)).isEqualTo(lower.hashCode());
+        assertThat(StringUtils.hashCodeIgnoreAsciiCase(new StringBuilder(str))).isEqualTo(lower.hashCode());
+    }
+
+    @Test
+    void asciiCaseSameInstance() {
+        String upper = "ALREADY UPPER-CASE 123";
+        String lower = "already lower-case 123";
+        assertThat(StringUtils.toAsciiUpperCase(upper)).isSameAs(upper);
+        assertThat(StringUtils.toAsciiLowerCase(lower)).isSameAs(lower);
+        assertThat(StringUtils.toAsciiUpperCase(null)).isNull();
+        assertThat(StringUtils.toAsciiLowerCase(null)).isNull();
+    }
+
+    @Test
+    void equalsIgnoreAsciiCase() {
+        assertThat(StringUtils.equalsIgnoreAsciiCase(null, null)).isTrue();
+        assertThat(StringUtils.equalsIgnoreAsciiCase("a", null)).isFalse();
+        assertThat(StringUtils.equalsIgnoreAsciiCase(null, "a")).isFalse();
+        assertThat(StringUtils.equalsIgnoreAsciiCase("ab", "a")).isFalse();
+        assertThat(StringUtils.equalsIgnoreAsciiCase("Accept", new StringBuilder("aCCEPT"))).isTrue();
+        assertThat(StringUtils.equalsIgnoreAsciiCase("Ä", "ä")).isFalse();
+        assertThat(StringUtils.equalsIgnoreAsciiCase("a[", "A{")).isFalse();
+        assertThat(StringUtils.hashCodeIgnoreAsciiCase(null)).isZero();
+    }
+
     @ParameterizedTest
     @CsvSource({
             ", 4,",
@@ -187,6 +242,94 @@ class StringUtilsTest {
         assertThat(StringUtils.onlyDigits(value, length)).isFalse();
     }
 
+    @ParameterizedTest
+    @CsvSource({
+            "'', true",
+            "' ', true",
+            "' \t\n\r\u000B\f\u001C\u001F       ', true",
+            "'                           ', true",
+            "'                          a', false",
+            "'          \u0000     ', false",
+            "'          \u00A0     ', false",
+            "'          \u0085     ', false",
+            "'\u00FF', false",
+            "abcdefghijklmnopqrstuvwxyz, false"
+    })
+    void isBlankBytes(String str, boolean expected) {
+        byte[] bytes = ("#" + str + "#").getBytes(StandardCharsets.ISO_8859_1);
+        assertThat(StringUtils.isBlank(bytes, 1, bytes.length - 2)).isEqualTo(expected);
+        assertThat(StringUtils.isBlank(new StringBuilder(str))).isEqualTo(expected);
+        assertThat(StringUtils.isBlank(str)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "'', true",
+            "0, true",
+            "0123456789, true",
+            "01234567890123456789, true",
+            "0123456789012345678/, false",
+            "012345678901234567:, false",
+            "0123456a, false",
+            "a0123456, false",
+            "01234\u00B05678, false",
+            "' 12', false"
+    })
+    void onlyDigitsBytes(String str, boolean expected) {
+        byte[] bytes = ("#" + str + "#").getBytes(StandardCharsets.ISO_8859_1);
+        assertThat(StringUtils.onlyDigits(bytes, 1, bytes.length - 2)).isEqualTo(expected);
+        assertThat(StringUtils.onlyDigits(str, str.length())).isEqualTo(expected);
+    }
+
+    @Test
+    void bulkChecks() {
+        assertThat(StringUtils.isAnyBlank((CharSequence[]) null)).isFalse();
+        assertThat(StringUtils.isAnyBlank("a", "b")).isFalse();
+        assertThat(StringUtils.isAnyBlank("a", " ", "b")).isTrue();
+        assertThat(StringUtils.isAnyBlank("a", null)).isTrue();
+
+        assertThat(StringUtils.onlyDigits(3, (CharSequence[]) null)).isFalse();
+        assertThat(StringUtils.onlyDigits(3, "123", "456", "٣٤٥")).isTrue();
+        assertThat(StringUtils.onlyDigits(3, "123", "45a")).isFalse();
+        assertThat(StringUtils.onlyDigits(3, "123", null)).isFalse();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "'', 4, *, ****, ****",
+            "123, 5, 0, 00123, 12300",
+            ", 3, -, ---, ---",
+            "my string, 0, *, my string, my string",
+            "abc, 3, *, abc, abc"
+    })
+    void appendPadded(String str, int size, char character, String expectedLeft, String expectedRight) throws IOException {
+        StringBuilder builder = new StringBuilder("> ");
+        assertThat(StringUtils.appendPadded(builder, str, size, character, Padding.LEFT)).hasToString("> " + expectedLeft);
+        assertThat(StringUtils.appendPadded(new StringBuilder(), str, size, character, Padding.RIGHT)).hasToString(expectedRight);
+
+        StringWriter writer = new StringWriter();
+        assertThat(StringUtils.appendPadded(writer, str, size, character, Padding.LEFT)).hasToString(expectedLeft);
+    }
+
+    @Test
+    void appendJoined() {
+        assertThat(StringUtils.appendJoined(new StringBuilder("a"), ',')).hasToString("a");
+        assertThat(StringUtils.appendJoined(new StringBuilder("a"), ',', (CharSequence[]) null)).hasToString("a");
+        assertThat(StringUtils.appendJoined(new StringBuilder("a="), ',', "x", new StringBuilder("y"), null)).hasToString("a=x,y,null");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            ", 4, null",
+            "abc, 4, abc",
+            "ab, 1, a",
+            "abcdef, 4, ab..",
+            "1234567890, 9, 1234567.."
+    })
+    void appendTruncated(String str, int maxLength, String expected) {
+        assertThat(StringUtils.appendTruncated(new StringBuilder("> "), str, maxLength)).hasToString("> " + expected);
+    }
+
     @Test
     void constants() {
         assertThat(EMPTY_STRING).isEmpty();
@@ -4,9 +4,19 @@ import org.junit.jupiter.api.Test;
 import org.opentest4j.AssertionFailedError;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -58,4 +68,124 @@ class ThreadUtilsTest {
         // expect assertion error due to timeout as the semaphore has no permits
         assertThrows(AssertionFailedError.class, () -> assertTimeoutPreemptively(Duration.ofMillis(10), () -> ThreadUtils.safeAcquire(new Semaphore(0))));
     }
-}
\ No newline at end of file
+
+    @Test
+    void safeAwaitDuration() {
+        CountDownLatch latch = new CountDownLatch(1);
+        assertFalse(ThreadUtils.safeAwait(latch, Duration.ofMillis(10)));
+
+        CompletableFuture.runAsync(latch::countDown);
+        assertTrue(ThreadUtils.safeAwait(latch, Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void safeAcquirePermits() {
+        Semaphore semaphore = new Semaphore(3);
+
+        assertTrue(ThreadUtils.safeAcquire(semaphore, 2));
+        assertEquals(1, semaphore.availablePermits());
+        assertFalse(ThreadUtils.safeTryAcquire(semaphore, 2, Duration.ofMillis(10)));
+        assertTrue(ThreadUtils.safeTryAcquire(semaphore, 1, Duration.ZERO));
+        assertEquals(0, semaphore.availablePermits());
+
+        CompletableFuture.runAsync(() -> semaphore.release(2));
+        assertTrue(ThreadUtils.safeTryAcquireUntil(semaphore, 2, System.nanoTime() + Duration.ofSeconds(10).toNanos()));
+        // a passed deadline doesn't wait
+        assertFalse(ThreadUtils.safeTryAcquireUntil(semaphore, 1, System.nanoTime() - 1));
+    }
+
+    @Test
+    void interruptedWaits() {
+        Thread.currentThread().interrupt();
+        assertFalse(ThreadUtils.safeAwait(new CountDownLatch(1), Duration.ofSeconds(10)));
+        assertTrue(Thread.interrupted());
+
+        Thread.currentThread().interrupt();
+        assertFalse(ThreadUtils.safeAcquire(new Semaphore(0), 1));
+        assertTrue(Thread.interrupted());
+
+        Thread.currentThread().interrupt();
+        assertFalse(ThreadUtils.safeTryAcquire(new Semaphore(0), 1, Duration.ofSeconds(10)));
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    void runAll() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            List<Callable<Integer>> tasks = IntStream.range(0, 50)
+                    .<Callable<Integer>>mapToObj(i -> () -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        ThreadUtils.safeSleep(1);
+                        running.decrementAndGet();
+                        return i * i;
+                    })
+                    .collect(Collectors.toList());
+
+            List<Integer> results = ThreadUtils.runAll(tasks, 4, executor);
+            assertEquals(IntStream.range(0, 50).map(i -> i * i).boxed().collect(Collectors.toList()), results);
+            assertTrue(maxRunning.get() <= 4);
+            assertEquals(0, running.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void runAllFailure() {
+        AtomicInteger started = new AtomicInteger();
+        List<Callable<Integer>> tasks = IntStream.range(0, 10)
+                .<Callable<Integer>>mapToObj(i -> () -> {
+                    started.incrementAndGet();
+                    if (i == 2) {
+                        throw new IllegalStateException(TestUtils.JUST_TESTING_MESSAGE);
+                    }
+                    return i;
+                })
+                .collect(Collectors.toList());
+
+        // a direct executor runs the tasks one by one, so no task is submitted after the failure
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> ThreadUtils.runAll(tasks, 1, Runnable::run));
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertEquals(3, started.get());
+
+        assertThrows(ExecutionException.class, () -> ThreadUtils.runAll(tasks, 1, task -> {
+            throw new RejectedExecutionException(TestUtils.JUST_TESTING_MESSAGE);
+        }));
+        assertThrows(IllegalArgumentException.class, () -> ThreadUtils.runAll(tasks, 0, Runnable::run));
+    }
+
+    @Test
+    void pollUntil() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertTrue(ThreadUtils.pollUntil(() -> attempts.incrementAndGet() == 100, WaitStrategy.busySpin(), Duration.ofSeconds(10)));
+        assertEquals(100, attempts.get());
+
+        long start = System.nanoTime();
+        assertFalse(ThreadUtils.pollUntil(() -> false, WaitStrategy.sleeping(Duration.ofMillis(1)), Duration.ofMillis(20)));
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(20).toNanos());
+
+        // the park time is bounded by the timeout
+        start = System.nanoTime();
+        assertFalse(ThreadUtils.pollUntil(() -> false, WaitStrategy.sleeping(Duration.ofSeconds(5)), Duration.ofMillis(10)));
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+    }
+
+    @Test
+    void poll() {
+        ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+        CompletableFuture.runAsync(() -> {
+            ThreadUtils.safeSleep(5);
+            queue.offer("value");
+        });
+        WaitStrategy strategy = WaitStrategy.backoff(10, 10, Duration.ofNanos(100), Duration.ofMillis(1));
+        assertEquals("value", ThreadUtils.poll(queue::poll, strategy, Duration.ofSeconds(10)));
+        assertNull(ThreadUtils.poll(queue::poll, WaitStrategy.yielding(), Duration.ZERO));
+
+        Thread.currentThread().interrupt();
+        assertNull(ThreadUtils.poll(queue::poll, strategy, Duration.ofSeconds(10)));
+        assertTrue(Thread.interrupted());
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.amanzat.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class WaitStrategyTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 10, 1000, Integer.MAX_VALUE})
+    void idleReturns(int attempt) {
+        long start = System.nanoTime();
+        WaitStrategy.busySpin().idle(attempt);
+        WaitStrategy.yielding().idle(attempt);
+        WaitStrategy.sleeping(Duration.ofNanos(1000)).idle(attempt);
+        WaitStrategy.backoff(2, 2, Duration.ofNanos(100), Duration.ofMillis(1)).idle(attempt);
+        assertThat(System.nanoTime() - start).isLessThan(Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    void backoffParkTime() {
+        WaitStrategy strategy = WaitStrategy.backoff(0, 0, Duration.ofMillis(2), Duration.ofMillis(8));
+        // the park time is capped, the 40th attempt parks for 8ms instead of overflowing
+        long start = System.nanoTime();
+        strategy.idle(40);
+        long elapsed = System.nanoTime() - start;
+        assertThat(elapsed).isGreaterThanOrEqualTo(Duration.ofMillis(8).toNanos()).isLessThan(Duration.ofSeconds(1).toNanos());
+
+        // spinning and yielding don't park
+        WaitStrategy spinning = WaitStrategy.backoff(100, 100, Duration.ofSeconds(10), Duration.ofSeconds(10));
+        start = System.nanoTime();
+        for (int attempt = 0; attempt < 200; attempt++) {
+            spinning.idle(attempt);
+        }
+        assertThat(System.nanoTime() - start).isLessThan(Duration.ofSeconds(5).toNanos());
+    }
+
+    @Test
+    void idleWithMaxWait() {
+        long start = System.nanoTime();
+        WaitStrategy.sleeping(Duration.ofSeconds(10)).idle(0, Duration.ofMillis(1).toNanos());
+        WaitStrategy.backoff(0, 0, Duration.ofSeconds(10), Duration.ofSeconds(10)).idle(0, Duration.ofMillis(1).toNanos());
+        assertThat(System.nanoTime() - start).isLessThan(Duration.ofSeconds(5).toNanos());
+
+        // the strategies which don't park ignore the maximum wait
+        WaitStrategy.busySpin().idle(0, 0);
+        WaitStrategy.yielding().idle(0, 0);
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> WaitStrategy.sleeping(Duration.ZERO));
+        assertThatIllegalArgumentException().isThrownBy(() -> WaitStrategy.backoff(-1, 0, Duration.ofNanos(1), Duration.ofNanos(1)));
+        assertThatIllegalArgumentException().isThrownBy(() -> WaitStrategy.backoff(0, 0, Duration.ofNanos(2), Duration.ofNanos(1)));
+        assertThatIllegalArgumentException().isThrownBy(() -> WaitStrategy.backoff(0, 0, Duration.ofNanos(-2), Duration.ofNanos(1)));
+    }
+}